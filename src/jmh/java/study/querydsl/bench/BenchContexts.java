@@ -0,0 +1,33 @@
+package study.querydsl.bench;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.StudyApplication;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 벤치마크용 스프링 컨텍스트 (웹 서버 없음, bench 프로필 = 인메모리 H2 + SQL 로그 끔)
+ * 시드 데이터는 기본 0건, 필요하면 --member.seed.* 로 지정 (MemberDataState)
+ */
+final class BenchContexts {
+
+    private BenchContexts() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraArgs) {
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--spring.profiles.active=bench",
+                "--member.seed.members=0",
+                "--member.seed.teams=0",
+                "--logging.level.root=warn"
+        ));
+        args.addAll(Arrays.asList(extraArgs)); // 뒤에 오는 값이 우선
+        return new SpringApplicationBuilder(StudyApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,71 @@
+package study.querydsl.bench;
+
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.*;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.TeamAgeStatsDto;
+import study.querydsl.repository.MemberColumnarStore;
+import study.querydsl.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 같은 조건의 검색 / 팀별 나이 통계를 DB(JPA) 와 인메모리 컬럼 스냅샷(MemberColumnarStore)으로 비교
+ * 스냅샷은 setUp 에서 미리 만들어 두므로 적재 비용은 빠져 있음
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ColumnarSearchBenchmark {
+
+    MemberRepository memberRepository;
+    MemberColumnarStore columnarStore;
+    JPAQueryFactory queryFactory;
+    MemberSearchCondition condition;
+
+    @Setup(Level.Trial)
+    public void setUp(MemberDataState data) {
+        memberRepository = data.bean(MemberRepository.class);
+        columnarStore = data.bean(MemberColumnarStore.class);
+        queryFactory = new JPAQueryFactory(data.bean(EntityManager.class));
+
+        condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+        condition.setAgeLoe(40);
+        columnarStore.count(condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchJpa() {
+        return memberRepository.search(condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchColumnar() {
+        return columnarStore.search(condition);
+    }
+
+    @Benchmark
+    public List<TeamAgeStatsDto> statsByTeamGroupBy() {
+        return queryFactory
+                .select(Projections.constructor(TeamAgeStatsDto.class,
+                        team.id, team.name, member.count(), member.age.min(), member.age.max(), member.age.avg()))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.age.goe(condition.getAgeGoe()), member.age.loe(condition.getAgeLoe()))
+                .groupBy(team.id, team.name)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<TeamAgeStatsDto> statsByTeamColumnar() {
+        return columnarStore.statsByTeam(condition);
+    }
+}
@@ -0,0 +1,66 @@
+package study.querydsl.bench;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberJpaRepository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * 엔티티 대량 조회 (findAll_QueryDsl) 비용 비교
+ * readWrite: 쓰기 트랜잭션 + 힌트 없음 -> 엔티티마다 스냅샷 보관, 커밋 시 dirty checking (AUTO flush)
+ * readOnly: MemberJpaRepository.findAll_QueryDsl (읽기 전용 트랜잭션, FlushMode.MANUAL, READ_ONLY 힌트)
+ * 힙 차이는 -prof gc 의 gc.alloc.rate.norm (B/op) 으로 확인
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class EntityQueryBenchmark {
+
+    EntityManager em;
+    JPAQueryFactory queryFactory;
+    TransactionTemplate transactionTemplate;
+    MemberJpaRepository memberJpaRepository;
+
+    @Setup(Level.Trial)
+    public void setUp(MemberDataState data) {
+        em = data.bean(EntityManager.class);
+        queryFactory = new JPAQueryFactory(em);
+        transactionTemplate = new TransactionTemplate(data.bean(PlatformTransactionManager.class));
+        memberJpaRepository = data.bean(MemberJpaRepository.class);
+    }
+
+    @Benchmark
+    public int readWrite() {
+        return transactionTemplate.execute(status -> {
+            List<Member> result = queryFactory
+                    .selectFrom(member)
+                    .fetch();
+            return result.size();
+        });
+    }
+
+    @Benchmark
+    public int readOnly() {
+        return memberJpaRepository.findAll_QueryDsl().size();
+    }
+
+    /**
+     * 쓰기 트랜잭션에 참여해도 READ_ONLY 힌트로 스냅샷 없이 조회 (FlushMode 는 AUTO 그대로)
+     */
+    @Benchmark
+    public boolean readOnlyInWriteTransaction() {
+        return transactionTemplate.execute(status -> {
+            List<Member> result = memberJpaRepository.findAll_QueryDsl();
+            return result.isEmpty() || em.unwrap(Session.class).isReadOnly(result.get(0));
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package study.querydsl.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 벤치마크용 스프링 컨텍스트 + 인메모리 H2 + 시드 데이터
+ * members / teams 는 -PjmhMembers, -PjmhTeams 로 조절 (10k ~ 10M)
+ * 시드 데이터는 InitMember(bench 프로필)가 MemberDataSeeder 로 넣는다 (randomSeed 고정이라 매번 같은 데이터)
+ */
+@State(Scope.Benchmark)
+public class MemberDataState {
+
+    @Param({"10000"})
+    public int members;
+
+    @Param({"10"})
+    public int teams;
+
+    public ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchContexts.start(
+                "--member.seed.members=" + members,
+                "--member.seed.teams=" + teams,
+                "--member.columnar.enabled=true"); // 처음 조회할 때 만들어지므로 쓰지 않는 벤치마크에는 비용 없음
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,109 @@
+package study.querydsl.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberInsertDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.service.MemberIngestionService;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 대량 저장 비교
+ * persistLoop: 기준선, InitMember 처럼 한 트랜잭션에서 한 건씩 persist (flush/clear 없음)
+ *              id 는 pooled 이전처럼 insert 마다 시퀀스 조회 (SequencePerInsertMember, allocationSize = 1)
+ * persistLoopPooled: 같은 루프를 Member(pooled 시퀀스, allocationSize = 50)로 - 시퀀스 조회 감소분만 비교
+ * ingestionService: MemberIngestionService (batch_size 단위 flush/clear)
+ * jdbcBatchSize=0 이면 JDBC 배치 없이 insert 문을 한 건씩 전송
+ * rows/sec = rows / 측정 시간
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class MemberInsertBenchmark {
+
+    @Param({"0", "100"})
+    public int jdbcBatchSize;
+
+    @Param({"100000"})
+    public int rows;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate transactionTemplate;
+    EntityManager em;
+    MemberIngestionService ingestionService;
+    List<MemberInsertDto> insertRows;
+    Long teamAId;
+    Long teamBId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchContexts.start("--spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        em = context.getBean(EntityManager.class);
+        ingestionService = context.getBean(MemberIngestionService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void prepare() {
+        context.getBean(JdbcTemplate.class).execute("delete from member");
+        transactionTemplate.execute(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            teamAId = teamA.getId();
+            teamBId = teamB.getId();
+            return null;
+        });
+
+        insertRows = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            insertRows.add(new MemberInsertDto("member" + i, i % 100, i % 2 == 0 ? teamAId : teamBId));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void persistLoop() {
+        transactionTemplate.execute(status -> {
+            Team teamA = em.find(Team.class, teamAId);
+            Team teamB = em.find(Team.class, teamBId);
+            for (int i = 0; i < rows; i++) {
+                Team selectedTeam = i % 2 == 0 ? teamA : teamB;
+                em.persist(new SequencePerInsertMember("member" + i, i % 100, selectedTeam));
+            }
+            return null;
+        });
+    }
+
+    @Benchmark
+    public void persistLoopPooled() {
+        transactionTemplate.execute(status -> {
+            Team teamA = em.find(Team.class, teamAId);
+            Team teamB = em.find(Team.class, teamBId);
+            for (int i = 0; i < rows; i++) {
+                Team selectedTeam = i % 2 == 0 ? teamA : teamB;
+                em.persist(new Member("member" + i, i % 100, selectedTeam));
+            }
+            return null;
+        });
+    }
+
+    @Benchmark
+    public int ingestionService() {
+        return ingestionService.insert(insertRows);
+    }
+}
@@ -0,0 +1,46 @@
+package study.querydsl.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.CountStrategy;
+import study.querydsl.repository.MemberRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동시 부하에서 content/count 순차 실행 vs 동시 실행 비교
+ * SampleTime 모드라 p50/p99 등 분위수가 같이 출력된다.
+ * 벤치마크 스레드(4) + member-query 스레드(4) 가 hikari 기본 풀(10)을 넘지 않도록 맞춤
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+public class MemberPageConcurrencyBenchmark {
+
+    MemberRepository memberRepository;
+    MemberSearchCondition condition;
+    PageRequest pageRequest;
+
+    @Setup(Level.Trial)
+    public void setUp(MemberDataState data) {
+        memberRepository = data.bean(MemberRepository.class);
+        condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+        condition.setAgeLoe(60);
+        pageRequest = PageRequest.of(10, 20);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> sequential() {
+        return memberRepository.searchPageComplex(condition, pageRequest, CountStrategy.EXACT);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> concurrent() {
+        return memberRepository.searchPageConcurrent(condition, pageRequest, CountStrategy.EXACT);
+    }
+}
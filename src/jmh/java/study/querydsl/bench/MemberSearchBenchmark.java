@@ -0,0 +1,119 @@
+package study.querydsl.bench;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 저장소 검색 메서드별 비용 비교
+ * searchByBuilder(BooleanBuilder) / search(where 파라미터) / searchPageSimple / searchPageComplex
+ * searchShapeCached: MemberRepository.search (조건 모양별로 미리 만든 JPQL, 파라미터만 바인딩)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class MemberSearchBenchmark {
+
+    MemberJpaRepository memberJpaRepository;
+    MemberRepository memberRepository;
+    MemberSearchCondition condition;
+    PageRequest pageRequest;
+
+    @Setup(Level.Trial)
+    public void setUp(MemberDataState data) {
+        memberJpaRepository = data.bean(MemberJpaRepository.class);
+        memberRepository = data.bean(MemberRepository.class);
+
+        condition = new MemberSearchCondition();
+        condition.setTeamName("team1");
+        condition.setAgeGoe(20);
+        condition.setAgeLoe(40);
+        pageRequest = PageRequest.of(1, 20);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByBuilder() {
+        return memberJpaRepository.searchByBuilder(condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchWhereParam() {
+        return memberJpaRepository.search(condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchShapeCached() {
+        return memberRepository.search(condition);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageSimple() {
+        return memberRepository.searchPageSimple(condition, pageRequest);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageComplex() {
+        return memberRepository.searchPageComplex(condition, pageRequest);
+    }
+
+    /**
+     * DB 없이 조건 조립 비용만 측정
+     */
+    @Benchmark
+    public Predicate buildPredicateBooleanBuilder() {
+        BooleanBuilder builder = new BooleanBuilder();
+        if (hasText(condition.getUsername())) {
+            builder.and(member.username.eq(condition.getUsername()));
+        }
+        if (hasText(condition.getTeamName())) {
+            builder.and(team.name.eq(condition.getTeamName()));
+        }
+        if (condition.getAgeLoe() != null) {
+            builder.and(member.age.loe(condition.getAgeLoe()));
+        }
+        if (condition.getAgeGoe() != null) {
+            builder.and(member.age.goe(condition.getAgeGoe()));
+        }
+        return builder;
+    }
+
+    @Benchmark
+    public void buildPredicateWhereParam(Blackhole blackhole) {
+        blackhole.consume(hasText(condition.getUsername()) ? member.username.eq(condition.getUsername()) : null);
+        blackhole.consume(hasText(condition.getTeamName()) ? team.name.eq(condition.getTeamName()) : null);
+        blackhole.consume(condition.getAgeGoe() != null ? member.age.goe(condition.getAgeGoe()) : null);
+        blackhole.consume(condition.getAgeLoe() != null ? member.age.loe(condition.getAgeLoe()) : null);
+    }
+
+    @Benchmark
+    public BooleanExpression buildPredicateWhereParamCombined() {
+        BooleanExpression result = null;
+        BooleanExpression[] parts = {
+                hasText(condition.getUsername()) ? member.username.eq(condition.getUsername()) : null,
+                hasText(condition.getTeamName()) ? team.name.eq(condition.getTeamName()) : null,
+                condition.getAgeGoe() != null ? member.age.goe(condition.getAgeGoe()) : null,
+                condition.getAgeLoe() != null ? member.age.loe(condition.getAgeLoe()) : null
+        };
+        for (BooleanExpression part : parts) {
+            if (part != null) {
+                result = result == null ? part : result.and(part);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,88 @@
+package study.querydsl.bench;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * DTO 프로젝션 방식별 비용 비교
+ * 검색 API 가 쓰는 QMemberTeamDto(@QueryProjection) 와 QuerydslBasicTest 의 Projections.bean/fields/constructor 를
+ * 같은 쿼리(member left join team)로 비교한다.
+ * gc 프로파일러의 gc.alloc.rate.norm 으로 호출당 할당량도 같이 본다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ProjectionBenchmark {
+
+    static final int LIMIT = 1000;
+
+    TransactionTemplate transactionTemplate;
+    EntityManager em;
+
+    @Setup(Level.Trial)
+    public void setUp(MemberDataState data) {
+        transactionTemplate = data.bean(TransactionTemplate.class);
+        em = data.bean(EntityManager.class);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> queryProjection() {
+        return fetch(new QMemberTeamDto(
+                member.id.as("memberId"),
+                member.username,
+                member.age,
+                team.id.as("teamId"),
+                team.name.as("teamName")));
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> projectionsBean() {
+        return fetch(Projections.bean(MemberTeamDto.class,
+                member.id.as("memberId"),
+                member.username,
+                member.age,
+                team.id.as("teamId"),
+                team.name.as("teamName")));
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> projectionsFields() {
+        return fetch(Projections.fields(MemberTeamDto.class,
+                member.id.as("memberId"),
+                member.username,
+                member.age,
+                team.id.as("teamId"),
+                team.name.as("teamName")));
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> projectionsConstructor() {
+        return fetch(Projections.constructor(MemberTeamDto.class,
+                member.id,
+                member.username,
+                member.age,
+                team.id,
+                team.name));
+    }
+
+    private List<MemberTeamDto> fetch(Expression<MemberTeamDto> projection) {
+        return transactionTemplate.execute(status -> new JPAQueryFactory(em)
+                .select(projection)
+                .from(member)
+                .leftJoin(member.team, team)
+                .limit(LIMIT)
+                .fetch());
+    }
+}
@@ -0,0 +1,37 @@
+package study.querydsl.bench;
+
+import study.querydsl.entity.Team;
+
+import javax.persistence.*;
+
+/**
+ * MemberInsertBenchmark 기준선용 - member 테이블에 그대로 저장하지만 id 는 allocationSize = 1 시퀀스
+ * Member 의 pooled 시퀀스 이전(@GeneratedValue 기본값)처럼 insert 마다 시퀀스를 한 번씩 조회한다.
+ * (jmh 소스셋에는 lombok 이 없어서 생성자를 직접 작성)
+ * 벤치마크 classpath 에만 있으므로 애플리케이션/테스트 스키마에는 영향 없음
+ */
+@Entity
+@Table(name = "member")
+class SequencePerInsertMember {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_per_insert_generator")
+    @SequenceGenerator(name = "member_seq_per_insert_generator", sequenceName = "member_seq_per_insert", allocationSize = 1)
+    @Column(name = "member_id")
+    private Long id;
+    private String username;
+    private int age;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "team_id")
+    private Team team;
+
+    protected SequencePerInsertMember() {
+    }
+
+    SequencePerInsertMember(String username, int age, Team team) {
+        this.username = username;
+        this.age = age;
+        this.team = team;
+    }
+}
@@ -2,13 +2,16 @@ package study.querydsl;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 
 @SpringBootApplication
 public class StudyApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(StudyApplication.class, args);
+        SpringApplication application = new SpringApplication(StudyApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(2048)); // 시작 단계별 소요 시간 (/actuator/startup)
+        application.run(args);
     }
 
 }
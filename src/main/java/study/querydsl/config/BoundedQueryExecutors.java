@@ -0,0 +1,94 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * 컨트롤러 클래스별 전용 조회 스레드 풀
+ * 느린 검색이 몰려도 톰캣 스레드는 바로 반환되고, 큐가 가득 차면 바로 503(Retry-After)으로 거절한다.
+ * member.async.queue.depth / member.async.active / member.async.rejected 메트릭 (tag: executor)
+ */
+@Component
+public class BoundedQueryExecutors implements DisposableBean {
+
+    private final MeterRegistry meterRegistry;
+    private final StatementCounter statementCounter;
+    private final int threads;
+    private final int queueLimit;
+    private final long retryAfterSeconds;
+    private final Map<Class<?>, Bounded> executors = new ConcurrentHashMap<>();
+
+    public BoundedQueryExecutors(MeterRegistry meterRegistry,
+                                 StatementCounter statementCounter,
+                                 @Value("${member.async.threads:8}") int threads,
+                                 @Value("${member.async.queue-limit:100}") int queueLimit,
+                                 @Value("${member.async.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.statementCounter = statementCounter;
+        this.threads = threads;
+        this.queueLimit = queueLimit;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Bounded forEndpoint(Class<?> endpointClass) {
+        return executors.computeIfAbsent(endpointClass, type -> new Bounded(type.getSimpleName()));
+    }
+
+    @Override
+    public void destroy() {
+        executors.values().forEach(bounded -> bounded.executor.shutdown());
+    }
+
+    public class Bounded {
+        private final ThreadPoolExecutor executor;
+        private final Counter rejected;
+
+        private Bounded(String name) {
+            executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueLimit),
+                    new CustomizableThreadFactory(name + "-query-"),
+                    new ThreadPoolExecutor.AbortPolicy());
+            Gauge.builder("member.async.queue.depth", executor, e -> e.getQueue().size())
+                    .tag("executor", name)
+                    .register(meterRegistry);
+            Gauge.builder("member.async.active", executor, ThreadPoolExecutor::getActiveCount)
+                    .tag("executor", name)
+                    .register(meterRegistry);
+            rejected = Counter.builder("member.async.rejected")
+                    .tag("executor", name)
+                    .register(meterRegistry);
+        }
+
+        public <T> CompletableFuture<T> submit(Supplier<T> query) {
+            try {
+                // 요청 스레드의 N+1 추적 구간을 조회 스레드로 넘김
+                return CompletableFuture.supplyAsync(query, task -> executor.execute(statementCounter.decorate(task)));
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                throw new QueryOverloadedException(retryAfterSeconds);
+            }
+        }
+    }
+
+    public static class QueryOverloadedException extends RuntimeException {
+        private final long retryAfterSeconds;
+
+        public QueryOverloadedException(long retryAfterSeconds) {
+            super("조회 요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요.");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package study.querydsl.config;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 2차 캐시 / 쿼리 캐시 통계
+ * GET /actuator/hibernatecache
+ */
+@Component
+@Endpoint(id = "hibernatecache")
+public class HibernateCacheEndpoint {
+
+    private final Statistics statistics;
+
+    public HibernateCacheEndpoint(EntityManagerFactory emf) {
+        this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public Map<String, Object> cacheStatistics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("secondLevelCache", counts(
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount()));
+        result.put("queryCache", counts(
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount()));
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                Map<String, Object> counts = counts(region.getHitCount(), region.getMissCount(), region.getPutCount());
+                counts.put("elementsInMemory", region.getElementCountInMemory());
+                regions.put(regionName, counts);
+            }
+        }
+        result.put("regions", regions);
+        return result;
+    }
+
+    private Map<String, Object> counts(long hit, long miss, long put) {
+        Map<String, Object> counts = new LinkedHashMap<>();
+        counts.put("hit", hit);
+        counts.put("miss", miss);
+        counts.put("put", put);
+        long total = hit + miss;
+        counts.put("hitRatio", total == 0 ? 0.0 : (double) hit / total);
+        return counts;
+    }
+}
@@ -0,0 +1,73 @@
+package study.querydsl.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 요청 단위로 NPlusOneGuard 적용
+ * 비동기 요청(조회를 BoundedQueryExecutors 스레드에서 실행)은 조회 스레드에서 실행된 문장까지 같은 구간에 모은다.
+ * FAIL 모드는 문장을 실행할 때 예외가 나서 응답이 커밋되기 전에 요청이 실패하고(500),
+ * 요청이 끝난 뒤에는 로그만 남긴다. (이미 커밋된 응답은 바꿀 수 없음)
+ */
+@Component
+public class NPlusOneFilter extends OncePerRequestFilter {
+
+    private static final String TRACKED_ATTRIBUTE = NPlusOneFilter.class.getName() + ".TRACKED";
+
+    private final NPlusOneGuard guard;
+
+    public NPlusOneFilter(NPlusOneGuard guard) {
+        this.guard = guard;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !guard.isEnabled();
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            @SuppressWarnings("unchecked")
+            Map<String, Integer> executed = (Map<String, Integer>) request.getAttribute(TRACKED_ATTRIBUTE);
+            request.removeAttribute(TRACKED_ATTRIBUTE);
+            filterChain.doFilter(request, response);
+            if (executed != null) {
+                guard.report(scope(request), executed);
+            }
+            return;
+        }
+
+        guard.start(scope(request));
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (!completed) {
+                guard.cancel(); // 예외가 난 요청은 추적만 정리
+            } else if (request.isAsyncStarted()) {
+                request.setAttribute(TRACKED_ATTRIBUTE, guard.suspend());
+            } else {
+                guard.report(scope(request), guard.suspend());
+            }
+        }
+    }
+
+    private static String scope(HttpServletRequest request) {
+        return request.getMethod() + " " + request.getRequestURI();
+    }
+}
@@ -0,0 +1,115 @@
+package study.querydsl.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * N+1 감지
+ * 한 구간(요청 하나, 테스트 블록 하나)에서 같은 SQL이 threshold 번 이상 실행되면 N+1로 본다.
+ * 운영에서는 WARN(로그), 테스트에서는 FAIL(예외)로 사용
+ * FAIL 은 threshold 번째 문장을 실행하기 직전(StatementInspector)에 예외를 던진다.
+ * 구간이 끝난 뒤에 던지면 웹 요청은 이미 응답이 커밋되어 클라이언트는 200 을 받기 때문
+ */
+@Slf4j
+@Component
+public class NPlusOneGuard {
+
+    public enum Mode {
+        OFF, WARN, FAIL
+    }
+
+    private final StatementCounter statementCounter;
+    private final Mode mode;
+    private final int threshold;
+
+    public NPlusOneGuard(StatementCounter statementCounter,
+                         @Value("${member.n-plus-one.mode:WARN}") Mode mode,
+                         @Value("${member.n-plus-one.threshold:5}") int threshold) {
+        this.statementCounter = statementCounter;
+        this.mode = mode;
+        this.threshold = threshold;
+    }
+
+    public boolean isEnabled() {
+        return mode != Mode.OFF;
+    }
+
+    public void start(String scope) {
+        statementCounter.startTracking((sql, count) -> {
+            if (mode == Mode.FAIL && count == threshold) {
+                throw new NPlusOneDetectedException(message(scope, sql, count));
+            }
+        });
+    }
+
+    public void cancel() {
+        statementCounter.stopTracking();
+    }
+
+    /**
+     * 현재 스레드에서는 추적을 멈추고 지금까지(그리고 넘겨준 작업이 앞으로) 모은 결과를 돌려준다.
+     */
+    public Map<String, Integer> suspend() {
+        return statementCounter.stopTracking();
+    }
+
+    public void finish(String scope) {
+        finish(scope, statementCounter.stopTracking());
+    }
+
+    /**
+     * 추적을 먼저 끝내 둔 구간 판정 (비동기 요청은 조회 스레드가 끝난 뒤에 판정)
+     */
+    public void finish(String scope, Map<String, Integer> executed) {
+        for (Map.Entry<String, Integer> entry : executed.entrySet()) {
+            if (entry.getValue() >= threshold) {
+                String message = message(scope, entry.getKey(), entry.getValue());
+                if (mode == Mode.FAIL) {
+                    throw new NPlusOneDetectedException(message);
+                }
+                log.warn(message);
+            }
+        }
+    }
+
+    /**
+     * 판정 결과를 로그로만 남김 (응답이 이미 커밋된 뒤라 예외를 던져도 소용없을 때)
+     */
+    public void report(String scope, Map<String, Integer> executed) {
+        for (Map.Entry<String, Integer> entry : executed.entrySet()) {
+            if (entry.getValue() >= threshold) {
+                log.warn(message(scope, entry.getKey(), entry.getValue()));
+            }
+        }
+    }
+
+    private static String message(String scope, String sql, int count) {
+        return "N+1 의심 [" + scope + "] 같은 SQL " + count + "회 실행: " + sql;
+    }
+
+    public <T> T check(String scope, Supplier<T> work) {
+        if (!isEnabled()) {
+            return work.get();
+        }
+        start(scope);
+        T result;
+        try {
+            result = work.get();
+        } catch (RuntimeException e) {
+            cancel();
+            throw e;
+        }
+        finish(scope);
+        return result;
+    }
+
+    public static class NPlusOneDetectedException extends IllegalStateException {
+        public NPlusOneDetectedException(String message) {
+            super(message);
+        }
+    }
+}
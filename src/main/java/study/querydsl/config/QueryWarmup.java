@@ -0,0 +1,72 @@
+package study.querydsl.config;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.repository.MemberSearchShapeCache;
+
+import javax.persistence.EntityManager;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 시작 후(ApplicationReadyEvent) 별도 스레드에서 Q타입 초기화 + 검색 JPQL 파싱
+ * 시작 시간에는 포함되지 않고, 첫 검색 요청이 파싱 비용을 내지 않도록 미리 해 둔다. (쿼리는 실행하지 않음)
+ */
+@Slf4j
+@Component
+public class QueryWarmup {
+
+    private final EntityManager em;
+    private final MemberSearchShapeCache shapeCache;
+    private final TransactionTemplate readOnlyTx;
+    private final StartupTimeline startupTimeline;
+    private final boolean enabled;
+
+    public QueryWarmup(EntityManager em,
+                       MemberSearchShapeCache shapeCache,
+                       PlatformTransactionManager transactionManager,
+                       StartupTimeline startupTimeline,
+                       @Value("${member.startup.warmup:true}") boolean enabled) {
+        this.em = em;
+        this.shapeCache = shapeCache;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.startupTimeline = startupTimeline;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::warmUp, "query-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void warmUp() {
+        try {
+            readOnlyTx.executeWithoutResult(status -> {
+                shapeCache.warmUp(em);
+                new JPAQueryFactory(em)
+                        .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                        .from(member)
+                        .leftJoin(member.team, team)
+                        .where(member.id.eq(0L))
+                        .createQuery();
+            });
+            startupTimeline.mark("warmup");
+        } catch (RuntimeException e) {
+            log.warn("query warmup failed", e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package study.querydsl.config;
+
+import java.util.function.Supplier;
+
+/**
+ * 조회가 어디서 읽었는지(primary / 복제본) 기록
+ * record 로 감싼 조회 안에서 ReplicaRoutingDataSource 가 복제본 커넥션을 고르면 표시해 둔다.
+ * 복제본 결과는 최신 커밋이 빠져 있을 수 있으므로 응답 캐시(MemberResponseCache)에 저장하지 않는 데 쓴다.
+ * 다른 호출의 결과를 받아 쓴 경우(SearchCoalescingAspect)는 어디서 읽었는지 모르므로 markShared.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    /**
+     * query 를 지금 스레드에서 실행하고 결과와 읽은 곳을 돌려준다.
+     */
+    public static <T> Routed<T> record(Supplier<T> query) {
+        Scope previous = CURRENT.get();
+        Scope scope = new Scope();
+        CURRENT.set(scope);
+        try {
+            T value = query.get();
+            return new Routed<>(value, !scope.replica && !scope.shared);
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+                previous.replica |= scope.replica;
+                previous.shared |= scope.shared;
+            }
+        }
+    }
+
+    /**
+     * ReplicaRoutingDataSource 가 복제본 커넥션을 골랐을 때
+     */
+    public static void routedToReplica() {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.replica = true;
+        }
+    }
+
+    /**
+     * 다른 호출의 결과를 받아 썼을 때 (SearchCoalescingAspect)
+     */
+    public static void markShared() {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.shared = true;
+        }
+    }
+
+    private static class Scope {
+        boolean replica;
+        boolean shared;
+    }
+
+    public static class Routed<T> {
+        private final T value;
+        private final boolean primaryOnly;
+
+        Routed(T value, boolean primaryOnly) {
+            this.value = value;
+            this.primaryOnly = primaryOnly;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * 모든 조회를 primary 에서 읽었는지 (복제본을 쓰지 않으면 항상 true)
+         */
+        public boolean isPrimaryOnly() {
+            return primaryOnly;
+        }
+    }
+}
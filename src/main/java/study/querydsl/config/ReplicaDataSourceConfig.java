@@ -0,0 +1,82 @@
+package study.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * member.datasource.replica.urls 가 있을 때만 읽기/쓰기 분리 DataSource 등록
+ * primary 는 spring.datasource.*, 복제본은 url 만 다르고 계정은 같다고 본다 (다르면 username/password 지정)
+ * 커넥션 풀은 대상별 hikari 풀(poolName = primary, replica-0 ...)이고 hikaricp.* 메트릭에 pool 태그로 구분된다.
+ * 풀 설정(spring.datasource.hikari.*)은 primary 에 바인딩하고 복제본 풀도 같은 설정을 복사해서 쓴다.
+ * JPA 등은 @Primary 인 라우팅 DataSource 를 쓴다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "member.datasource.replica", name = "urls")
+public class ReplicaDataSourceConfig implements DisposableBean {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    /**
+     * 자동 설정의 hikari DataSource 와 같은 방식 (spring.datasource.* + spring.datasource.hikari.*)
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primary,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${member.datasource.replica.urls}") String[] replicaUrls,
+                                 @Value("${member.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                 @Value("${member.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                 @Value("${member.datasource.replica.max-lag:5s}") Duration maxLag,
+                                 @Value("${member.datasource.replica.lag-query:}") String lagQuery,
+                                 @Value("${member.datasource.replica.lag-check-interval:1s}") Duration lagCheckInterval) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        primary.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        primary.setMetricsTrackerFactory(metrics);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.length; i++) {
+            HikariDataSource replica = new HikariDataSource();
+            primary.copyStateTo(replica); // 풀 크기, 타임아웃 등 (커넥션을 만들기 전이라 복사 가능)
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(replicaUrls[i].trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(metrics);
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, maxLag.toMillis(), lagQuery, meterRegistry);
+        routingDataSource.startLagCheck(lagCheckInterval.toMillis());
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽기 전용 트랜잭션은 복제본(replica)으로, 나머지(쓰기, 트랜잭션 없음)는 primary 로 보낸다.
+ * 트랜잭션 시작 시점에는 readOnly 여부가 아직 정해지지 않으므로 LazyConnectionDataSourceProxy 로 감싸서 사용한다.
+ *
+ * 복제 지연 확인
+ * - lagQuery 가 있으면 복제본에서 실행한 결과(ms)를 지연으로 보고, maxLag 를 넘으면 그 복제본은 제외
+ * - lagQuery 가 없으면 연결 가능 여부만 확인
+ * - 사용할 수 있는 복제본이 없으면 primary 로 보낸다 (member.datasource.fallback)
+ *
+ * 메트릭
+ * - member.datasource.connections{target}: 대상별 커넥션 획득 수
+ * - member.datasource.replica.lag{target}: 마지막으로 확인한 지연(ms), 확인 실패 시 -1
+ * - member.datasource.fallback: 복제본 대신 primary 로 보낸 읽기 전용 요청 수
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final long maxLagMillis;
+    private final String lagQuery;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> connections = new HashMap<>();
+    private final Counter fallbacks;
+    private ScheduledExecutorService lagChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    long maxLagMillis, String lagQuery, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagMillis = maxLagMillis;
+        this.lagQuery = StringUtils.hasText(lagQuery) ? lagQuery : null;
+        this.meterRegistry = meterRegistry;
+        this.fallbacks = meterRegistry.counter("member.datasource.fallback");
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        connections.put(PRIMARY, connectionCounter(PRIMARY));
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            targets.put(name, dataSource);
+            connections.put(name, connectionCounter(name));
+            Gauge.builder("member.datasource.replica.lag", replica, r -> r.lagMillis)
+                    .tag("target", name)
+                    .register(meterRegistry);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String target = TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? pickReplica() : PRIMARY;
+        connections.get(target).increment();
+        if (!PRIMARY.equals(target)) {
+            ReadRouting.routedToReplica();
+        }
+        return target;
+    }
+
+    /**
+     * 사용 가능한 복제본을 돌아가면서 선택, 없으면 primary
+     */
+    private String pickReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.name;
+            }
+        }
+        fallbacks.increment();
+        return PRIMARY;
+    }
+
+    /**
+     * 복제본마다 지연을 확인해서 사용 가능 여부를 갱신
+     */
+    public void refreshLag() {
+        for (Replica replica : replicas) {
+            long lag = measureLag(replica);
+            boolean healthy = lag >= 0 && lag <= maxLagMillis;
+            if (replica.healthy != healthy) {
+                log.warn("replica {} {} (lag={}ms, max={}ms)", replica.name, healthy ? "restored" : "excluded", lag, maxLagMillis);
+            }
+            replica.lagMillis = lag;
+            replica.healthy = healthy;
+        }
+    }
+
+    private long measureLag(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (lagQuery == null) {
+                return connection.isValid(1) ? 0 : -1;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                return rs.next() ? Math.max(rs.getLong(1), 0) : -1;
+            }
+        } catch (SQLException e) {
+            log.debug("replica {} lag check failed", replica.name, e);
+            return -1;
+        }
+    }
+
+    /**
+     * interval 마다 refreshLag 실행 (데몬 스레드 하나)
+     */
+    public void startLagCheck(long intervalMillis) {
+        lagChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagChecker.scheduleWithFixedDelay(this::refreshLag, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+        }
+        closeQuietly(primary);
+        for (Replica replica : replicas) {
+            closeQuietly(replica.dataSource);
+        }
+    }
+
+    private void closeQuietly(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable) {
+            ((AutoCloseable) dataSource).close();
+        }
+    }
+
+    private Counter connectionCounter(String target) {
+        return meterRegistry.counter("member.datasource.connections", "target", target);
+    }
+
+    private static class Replica {
+        final String name;
+        final DataSource dataSource;
+        volatile long lagMillis = -1;
+        volatile boolean healthy = true; // 첫 확인 전에는 사용 가능으로 본다
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
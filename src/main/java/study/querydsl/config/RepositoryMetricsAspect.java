@@ -0,0 +1,159 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.KeysetSlice;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * MemberRepositoryImpl, MemberJpaRepository 메서드별 메트릭
+ * member.repository.latency    : 응답 시간 (p50/p95/p99, HdrHistogram 기반), 예외로 끝난 호출도 outcome=error 로 기록
+ * member.repository.rows       : 반환 row 수
+ * member.repository.statements : 호출 한 번에 실행된 SQL 문장 수
+ * member.repository.bytes      : 결과 객체 크기 추정치
+ * member.repository.stream     : Stream 반환은 메서드가 커서만 열고 바로 돌아오므로 latency 대신 close 될 때까지 시간,
+ *                                rows 는 실제로 읽은 row 수
+ * 가장 바깥 aspect 라서 SearchCoalescingAspect 가 합친 호출도 호출한 쪽 기준으로 기록된다.
+ */
+@Aspect
+@Component
+@Order(RepositoryMetricsAspect.ORDER)
+public class RepositoryMetricsAspect {
+
+    static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    private final MeterRegistry meterRegistry;
+    private final StatementCounter statementCounter;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsAspect(MeterRegistry meterRegistry, StatementCounter statementCounter) {
+        this.meterRegistry = meterRegistry;
+        this.statementCounter = statementCounter;
+    }
+
+    @Around("execution(public * study.querydsl.repository.MemberRepositoryImpl.*(..))"
+            + " || execution(public * study.querydsl.repository.MemberJpaRepository.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        Meters m = meters.computeIfAbsent(
+                joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName(),
+                key -> new Meters(joinPoint.getSignature().getDeclaringType().getSimpleName(), joinPoint.getSignature().getName()));
+
+        long statementsBefore = statementCounter.current();
+        long start = System.nanoTime();
+        Object result = null;
+        boolean succeeded = false;
+        try {
+            result = joinPoint.proceed();
+            succeeded = true;
+        } finally {
+            if (!(result instanceof Stream)) { // 스트림은 close 할 때 기록
+                (succeeded ? m.latency : m.failed).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                m.statements.record(statementCounter.current() - statementsBefore);
+            }
+        }
+
+        if (result instanceof Stream) {
+            return track(m, (Stream<?>) result, start);
+        }
+        Collection<?> rows = rowsOf(result);
+        if (rows != null) {
+            m.rows.record(rows.size());
+            m.bytes.record(estimateBytes(rows));
+        }
+        return result;
+    }
+
+    private static Stream<?> track(Meters m, Stream<?> stream, long start) {
+        LongAdder rows = new LongAdder();
+        return stream
+                .peek(row -> rows.increment())
+                .onClose(() -> {
+                    m.stream.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    m.rows.record(rows.sum());
+                });
+    }
+
+    private static Collection<?> rowsOf(Object result) {
+        if (result instanceof Collection) {
+            return (Collection<?>) result;
+        }
+        if (result instanceof Slice) { // Page 포함
+            return ((Slice<?>) result).getContent();
+        }
+        if (result instanceof KeysetSlice) {
+            return ((KeysetSlice<?>) result).getContent();
+        }
+        return null;
+    }
+
+    /**
+     * 대략적인 힙 사용량 (객체 헤더 + 필드 + 문자열 길이 * 2)
+     */
+    private static long estimateBytes(Collection<?> rows) {
+        long bytes = 0;
+        for (Object row : rows) {
+            if (row instanceof MemberTeamDto) {
+                MemberTeamDto dto = (MemberTeamDto) row;
+                bytes += 48 + stringBytes(dto.getUsername()) + stringBytes(dto.getTeamName());
+            } else if (row instanceof Member) {
+                bytes += 40 + stringBytes(((Member) row).getUsername());
+            } else {
+                bytes += 16;
+            }
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+
+    private class Meters {
+        private final Timer latency;
+        private final Timer failed;
+        private final Timer stream;
+        private final DistributionSummary rows;
+        private final DistributionSummary statements;
+        private final DistributionSummary bytes;
+
+        Meters(String repository, String method) {
+            latency = Timer.builder("member.repository.latency")
+                    .tags("repository", repository, "method", method, "outcome", "success")
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+            failed = Timer.builder("member.repository.latency")
+                    .tags("repository", repository, "method", method, "outcome", "error")
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+            stream = Timer.builder("member.repository.stream")
+                    .tags("repository", repository, "method", method)
+                    .register(meterRegistry);
+            rows = DistributionSummary.builder("member.repository.rows")
+                    .tags("repository", repository, "method", method)
+                    .register(meterRegistry);
+            statements = DistributionSummary.builder("member.repository.statements")
+                    .tags("repository", repository, "method", method)
+                    .register(meterRegistry);
+            bytes = DistributionSummary.builder("member.repository.bytes")
+                    .baseUnit("bytes")
+                    .tags("repository", repository, "method", method)
+                    .register(meterRegistry);
+        }
+    }
+}
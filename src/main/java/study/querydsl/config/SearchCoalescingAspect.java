@@ -0,0 +1,211 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.dto.KeysetCursor;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberSearchKey;
+import study.querydsl.repository.MemberWriteTracker;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 같은 검색 요청 합치기 (single-flight)
+ * MemberRepositoryImpl 검색 메서드에 같은 인자로 동시에 들어온 호출은 먼저 온 호출(leader)만 실행하고
+ * 나머지는 그 결과(예외 포함)를 같이 받는다. window 가 있으면 끝난 뒤에도 그 시간 동안은 결과를 재사용.
+ * 키에 MemberWriteTracker 버전이 들어가므로 변경이 커밋된 뒤 들어온 호출은 새로 실행한다.
+ * 결과 객체를 여러 호출이 공유하므로 받은 쪽에서 수정하면 안 된다.
+ *
+ * 끝난 결과는 leader 가 끝날 때마다 window 가 지난 것부터 정리하고, 그래도 maxEntries 를 넘으면 재사용하지 않는다.
+ *
+ * member.search.coalesced : 합쳐져서 실행하지 않은 호출 수 (= 아낀 DB 실행 수)
+ * 합쳐진 호출도 RepositoryMetricsAspect(바깥)의 member.repository.* 에 기록된다. (latency = 기다린 시간, statements = 0)
+ */
+@Aspect
+@Component
+@Order(RepositoryMetricsAspect.ORDER + 1) // 메트릭 안쪽, 트랜잭션보다 바깥에서 합쳐야 실행 자체를 건너뜀
+@ConditionalOnProperty(name = "member.coalescing.enabled", havingValue = "true", matchIfMissing = true)
+public class SearchCoalescingAspect {
+
+    private final MemberWriteTracker writeTracker;
+    private final MeterRegistry meterRegistry;
+    private final long windowNanos;
+    private final int maxEntries;
+
+    private final Map<List<Object>, Flight> flights = new ConcurrentHashMap<>();
+    private final Queue<Flight> completed = new ConcurrentLinkedQueue<>(); // 끝난 순서 (window 가 같으므로 만료 순서)
+    private final Map<String, Counter> saved = new ConcurrentHashMap<>();
+
+    public SearchCoalescingAspect(MemberWriteTracker writeTracker,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${member.coalescing.window:0ms}") Duration window,
+                                  @Value("${member.coalescing.max-entries:10000}") int maxEntries) {
+        this.writeTracker = writeTracker;
+        this.meterRegistry = meterRegistry;
+        this.windowNanos = window.toNanos();
+        this.maxEntries = maxEntries;
+        Gauge.builder("member.search.inflight", flights, Map::size)
+                .register(meterRegistry);
+    }
+
+    // searchStream 은 호출한 쪽 트랜잭션에서 커서를 읽는 스트림이라 공유할 수 없음
+    @Around("execution(public * study.querydsl.repository.MemberRepositoryImpl.search*(..))"
+            + " && !execution(* study.querydsl.repository.MemberRepositoryImpl.searchStream(..))")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        List<Object> key = key(method, joinPoint.getArgs());
+        if (key == null || !readOnlyView()) {
+            return joinPoint.proceed();
+        }
+        return execute(key, method, joinPoint::proceed);
+    }
+
+    Object execute(List<Object> key, String method, Execution execution) throws Throwable {
+        List<Object> versionedKey = new ArrayList<>(key);
+        versionedKey.add(writeTracker.currentVersion());
+        long now = System.nanoTime();
+        Flight mine = new Flight(versionedKey);
+        Flight flight = flights.compute(versionedKey,
+                (k, existing) -> existing != null && existing.reusable(now, windowNanos) ? existing : mine);
+
+        if (flight != mine) {
+            savedCounter(method, flight.isDone() ? "window" : "in_flight").increment();
+            ReadRouting.markShared(); // 다른 호출이 읽은 결과라 primary 에서 읽었는지 모름
+            return flight.await();
+        }
+
+        try {
+            Object result = execution.run();
+            mine.complete(result);
+            return result;
+        } catch (Throwable e) {
+            mine.fail(e);
+            throw e;
+        } finally {
+            if (windowNanos <= 0 || mine.failed) {
+                flights.remove(versionedKey, mine);
+            } else {
+                completed.add(mine);
+                prune();
+                if (flights.size() > maxEntries) {
+                    flights.remove(versionedKey, mine);
+                }
+            }
+        }
+    }
+
+    /**
+     * window 가 지난 결과를 앞에서부터 제거
+     */
+    private void prune() {
+        long now = System.nanoTime();
+        Flight head;
+        while ((head = completed.peek()) != null && !head.reusable(now, windowNanos)) {
+            if (completed.remove(head)) {
+                flights.remove(head.key, head);
+            }
+        }
+    }
+
+    /**
+     * 호출한 쪽이 쓰기 트랜잭션 안이면 아직 커밋 안 된 변경이 결과에 보일 수 있어 합치지 않는다.
+     * (트랜잭션 없이 부르면 MemberRepositoryCustom 의 readOnly 트랜잭션이 새로 열림)
+     */
+    private static boolean readOnlyView() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * 같은 쿼리가 되는 인자는 같은 키 (필드별로 비교하는 값 객체의 리스트), 모르는 타입의 인자가 있으면 null (합치지 않음)
+     */
+    static List<Object> key(String method, Object[] args) {
+        List<Object> key = new ArrayList<>();
+        key.add(method);
+        for (Object arg : args) {
+            if (arg instanceof MemberSearchCondition) {
+                key.add(MemberSearchKey.of((MemberSearchCondition) arg));
+            } else if (arg instanceof Pageable) {
+                key.add(arg); // PageRequest, Unpaged 모두 값으로 비교
+            } else if (arg instanceof KeysetCursor) {
+                KeysetCursor cursor = (KeysetCursor) arg;
+                key.add(Arrays.asList(cursor.encode(), cursor.getSize()));
+            } else if (arg instanceof Enum || arg instanceof Number) {
+                key.add(arg);
+            } else {
+                return null;
+            }
+        }
+        return key;
+    }
+
+    private Counter savedCounter(String method, String type) {
+        return saved.computeIfAbsent(method + "." + type, k -> Counter.builder("member.search.coalesced")
+                .tags("method", method, "type", type)
+                .register(meterRegistry));
+    }
+
+    interface Execution {
+        Object run() throws Throwable;
+    }
+
+    private static class Flight {
+        private final List<Object> key;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private volatile long completedAt;
+        private volatile boolean failed;
+
+        Flight(List<Object> key) {
+            this.key = key;
+        }
+
+        boolean isDone() {
+            return result.isDone();
+        }
+
+        boolean reusable(long now, long windowNanos) {
+            if (!result.isDone()) {
+                return true;
+            }
+            return !failed && now - completedAt <= windowNanos;
+        }
+
+        void complete(Object value) {
+            completedAt = System.nanoTime();
+            result.complete(value);
+        }
+
+        void fail(Throwable e) {
+            failed = true;
+            completedAt = System.nanoTime();
+            result.completeExceptionally(e);
+        }
+
+        Object await() throws Throwable {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package study.querydsl.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 시작 단계별 시각 (JVM 시작 기준 ms)
+ * started(컨텍스트 준비) -> ready(요청 받을 수 있음) -> first-request(첫 요청 처리 완료) + 시작 후 작업(warmup, seed)
+ * GET /actuator/startuptimeline (스프링 내부 단계별 상세는 /actuator/startup)
+ */
+@Slf4j
+@Lazy(false)
+@Component
+@Endpoint(id = "startuptimeline")
+public class StartupTimeline {
+
+    private final long jvmStartMillis;
+    private final List<Map<String, Object>> phases = new ArrayList<>();
+    private final AtomicBoolean firstRequest = new AtomicBoolean();
+
+    public StartupTimeline() {
+        this(ManagementFactory.getRuntimeMXBean().getStartTime());
+    }
+
+    StartupTimeline(long jvmStartMillis) {
+        this.jvmStartMillis = jvmStartMillis;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onStarted() {
+        mark("started");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        mark("ready");
+    }
+
+    @EventListener(ServletRequestHandledEvent.class)
+    public void onRequestHandled() {
+        if (firstRequest.compareAndSet(false, true)) {
+            mark("first-request");
+        }
+    }
+
+    public synchronized void mark(String phase) {
+        long sinceJvmStart = System.currentTimeMillis() - jvmStartMillis;
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("phase", phase);
+        entry.put("millis", sinceJvmStart);
+        phases.add(entry);
+        log.info("startup timeline: {} at {} ms", phase, sinceJvmStart);
+    }
+
+    @ReadOperation
+    public synchronized List<Map<String, Object>> timeline() {
+        return new ArrayList<>(phases);
+    }
+}
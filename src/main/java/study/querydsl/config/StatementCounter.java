@@ -0,0 +1,120 @@
+package study.querydsl.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * 하이버네이트가 실행하는 SQL 문장 수를 스레드별로 센다.
+ * 문장을 로그로 남기지 않아도 호출당 쿼리 수를 알 수 있다.
+ *
+ * SQL 별 추적(startTracking)은 N+1 판정용이라 SELECT 만 모은다. (배치 INSERT, 시퀀스 조회는 반복이 정상)
+ * 조회를 다른 스레드에서 실행하는 경우 decorate 로 감싼 작업은 감쌀 때의 추적 구간에 같이 모인다.
+ */
+@Component
+public class StatementCounter implements StatementInspector, TaskDecorator {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+    private static final ThreadLocal<Tracked> TRACKED = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        Tracked tracked = TRACKED.get();
+        if (tracked != null && isSelect(sql)) {
+            tracked.onSelect.accept(sql, tracked.merge(sql, 1, Integer::sum));
+        }
+        return sql;
+    }
+
+    /**
+     * 현재 스레드에서 실행되는 문장을 SQL 별로 모으기 시작 (NPlusOneGuard 에서 사용)
+     */
+    public void startTracking() {
+        startTracking((sql, count) -> {
+        });
+    }
+
+    /**
+     * @param onSelect SELECT 를 실행하기 직전에 (SQL, 지금까지 실행 횟수)로 호출 - 예외를 던지면 그 문장은 실행되지 않는다.
+     */
+    public void startTracking(ObjIntConsumer<String> onSelect) {
+        TRACKED.set(new Tracked(onSelect));
+    }
+
+    /**
+     * 현재 스레드의 추적을 끝낸다. 이미 decorate 로 넘긴 작업이 아직 실행 중이면 반환한 map 에 계속 모인다.
+     * @return startTracking 이후 SQL 별 실행 횟수
+     */
+    public Map<String, Integer> stopTracking() {
+        Tracked tracked = TRACKED.get();
+        TRACKED.remove();
+        return tracked == null ? Collections.emptyMap() : tracked;
+    }
+
+    /**
+     * 지금 스레드의 추적 구간을 작업을 실행하는 스레드로 넘긴다.
+     */
+    @Override
+    public Runnable decorate(Runnable task) {
+        Tracked tracked = TRACKED.get();
+        if (tracked == null) {
+            return task;
+        }
+        return () -> {
+            Tracked previous = TRACKED.get();
+            TRACKED.set(tracked);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    TRACKED.remove();
+                } else {
+                    TRACKED.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * 현재 스레드에서 지금까지 실행된 문장 수 (구간 측정은 전후 값의 차이로 구한다)
+     */
+    public long current() {
+        return COUNT.get()[0];
+    }
+
+    /**
+     * 앞쪽 주석(use_sql_comments)을 건너뛰고 select / with 로 시작하는지
+     */
+    static boolean isSelect(String sql) {
+        int i = 0;
+        int length = sql.length();
+        while (i < length) {
+            if (Character.isWhitespace(sql.charAt(i))) {
+                i++;
+            } else if (sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                if (end < 0) {
+                    return false;
+                }
+                i = end + 2;
+            } else {
+                break;
+            }
+        }
+        return sql.regionMatches(true, i, "select", 0, 6) || sql.regionMatches(true, i, "with", 0, 4);
+    }
+
+    private static class Tracked extends ConcurrentHashMap<String, Integer> {
+        private final transient ObjIntConsumer<String> onSelect;
+
+        Tracked(ObjIntConsumer<String> onSelect) {
+            this.onSelect = onSelect;
+        }
+    }
+}
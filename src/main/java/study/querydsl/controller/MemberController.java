@@ -3,35 +3,114 @@ package study.querydsl.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.querydsl.config.BoundedQueryExecutors;
+import study.querydsl.dto.KeysetCursor;
+import study.querydsl.dto.KeysetSlice;
+import study.querydsl.dto.MemberBulkImportResult;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
-import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.CountStrategy;
 import study.querydsl.repository.MemberRepository;
+import study.querydsl.service.MemberBulkImportService;
+import study.querydsl.service.MemberExportService;
+import study.querydsl.service.MemberFileFormat;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
+import static org.springframework.util.StringUtils.hasText;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
-    private final MemberJpaRepository memberJpaRepository;
     private final MemberRepository memberRepository;
+    private final MemberExportService memberExportService;
+    private final MemberBulkImportService memberBulkImportService;
+    private final BoundedQueryExecutors queryExecutors;
+    private final MemberResponseCache responseCache;
 
+    /**
+     * 검색 API는 MemberController 전용 스레드 풀에서 실행 (큐가 가득 차면 503)
+     * v1, v2 는 ETag 를 내려주고, If-None-Match 가 같으면 DB 조회 없이 304
+     */
     @GetMapping("/v1/members")
-    public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
-        return memberJpaRepository.search(condition);
+    public CompletableFuture<ResponseEntity<byte[]>> searchMemberV1(MemberSearchCondition condition,
+                                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return responseCache.respond(MemberResponseCache.key("v1", condition), ifNoneMatch,
+                queryExecutor(), () -> memberRepository.search(condition)); // 조건 모양별 JPQL 캐시
     }
 
     @GetMapping("/v2/members")
-    public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable){
-        return memberRepository.searchPageSimple(condition, pageable);
+    public CompletableFuture<ResponseEntity<byte[]>> searchMemberV2(MemberSearchCondition condition, Pageable pageable,
+                                                                    @RequestParam(defaultValue = "EXACT") CountStrategy countStrategy,
+                                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return responseCache.respond(MemberResponseCache.key("v2", condition, pageable, countStrategy), ifNoneMatch,
+                queryExecutor(), () -> memberRepository.searchPageSimple(condition, pageable, countStrategy));
     }
 
     @GetMapping("/v3/members")
-    public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable){
-        return memberRepository.searchPageComplex(condition, pageable);
+    public CompletableFuture<Page<MemberTeamDto>> searchMemberV3(MemberSearchCondition condition, Pageable pageable,
+                                                                @RequestParam(defaultValue = "EXACT") CountStrategy countStrategy,
+                                                                @RequestParam(defaultValue = "false") boolean concurrentCount) {
+        return queryExecutor().submit(() -> {
+            if (concurrentCount) { // content, count 쿼리 동시 실행
+                return memberRepository.searchPageConcurrent(condition, pageable, countStrategy);
+            }
+            return memberRepository.searchPageComplex(condition, pageable, countStrategy);
+        });
+    }
+
+    /**
+     * 키셋 페이징, 첫 요청은 cursor 없이 order/size만 주고 (order 기본값 ID)
+     * 이후에는 응답의 nextCursor를 그대로 넘긴다. 정렬은 커서에 들어 있으므로 order 는 생략 가능, 주면 커서와 같아야 함 (다르면 400)
+     */
+    @GetMapping("/v4/members")
+    public CompletableFuture<KeysetSlice<MemberTeamDto>> searchMemberV4(MemberSearchCondition condition,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(required = false) KeysetCursor.Order order,
+                                                                        @RequestParam(defaultValue = "20") int size) {
+        KeysetCursor keysetCursor = hasText(cursor)
+                ? KeysetCursor.decode(cursor, order, size)
+                : KeysetCursor.first(order != null ? order : KeysetCursor.Order.ID, size);
+        return queryExecutor().submit(() -> memberRepository.searchSlice(condition, keysetCursor));
+    }
+
+    /**
+     * 검색 결과 전체 내보내기 (NDJSON/CSV)
+     * 결과 크기와 상관없이 메모리에 모으지 않고 커서에서 읽는 대로 응답에 쓴다.
+     */
+    @GetMapping("/members/export")
+    public ResponseEntity<StreamingResponseBody> exportMembers(MemberSearchCondition condition,
+                                                               @RequestParam(defaultValue = "NDJSON") MemberFileFormat format) {
+        StreamingResponseBody body = out -> memberExportService.export(condition, format, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=members." + format.getExtension())
+                .body(body);
+    }
+
+    /**
+     * 회원 대량 등록 (CSV: username,age,teamName / NDJSON)
+     * 본문을 스트림으로 읽으면서 chunk 단위로 저장하고 처리 결과를 돌려준다.
+     */
+    @PostMapping(value = "/members/bulk", consumes = {"text/csv", "application/x-ndjson"})
+    public MemberBulkImportResult bulkImportMembers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                    InputStream body) throws IOException {
+        return memberBulkImportService.importMembers(body, MemberFileFormat.fromContentType(contentType));
     }
 
+    private BoundedQueryExecutors.Bounded queryExecutor() {
+        return queryExecutors.forEndpoint(MemberController.class);
+    }
 }
@@ -0,0 +1,237 @@
+package study.querydsl.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import study.querydsl.config.BoundedQueryExecutors;
+import study.querydsl.config.ReadRouting;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberSearchKey;
+import study.querydsl.repository.MemberWriteTracker;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * 검색 API 응답 캐시 (ETag / If-None-Match)
+ * ETag 는 인스턴스 id + (요청 키, MemberWriteTracker 버전, ttl 구간)의 SHA-256 이라서 DB 를 보지 않고 만들 수 있고,
+ * 같으면 304, 다르면 직렬화해 둔 응답 바이트를 쓰고, 그것도 없을 때만 쿼리를 실행한다.
+ * 캐시는 LRU(max-entries)이고 회원/팀이 바뀌면 전부 비운다.
+ *
+ * 버전은 이 프로세스의 커밋만 세므로
+ * - 다른 인스턴스에서 바뀐 내용은 ttl 구간이 바뀔 때 반영된다. (ttl 은 복제본 max-lag 보다 짧지 않게)
+ * - 복제본에서 읽은 결과는 이미 커밋된 변경이 빠져 있을 수 있어서 저장하지 않고 ETag 도 주지 않는다. (ReadRouting)
+ */
+@Component
+public class MemberResponseCache {
+
+    static final int ETAG_DIGEST_BYTES = 16; // SHA-256 앞 128비트
+
+    private final ObjectMapper objectMapper;
+    private final MemberWriteTracker writeTracker;
+    private final int maxEntries;
+    private final int maxEntryBytes;
+    private final long ttlMillis;
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8); // 재시작하면 버전이 0 부터라 구분용
+
+    private final Map<String, CachedResponse> cache;
+    private final Counter notModified;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter replicaReads;
+
+    public MemberResponseCache(ObjectMapper objectMapper,
+                               MemberWriteTracker writeTracker,
+                               MeterRegistry meterRegistry,
+                               @Value("${member.response-cache.max-entries:1000}") int maxEntries,
+                               @Value("${member.response-cache.max-entry-bytes:262144}") int maxEntryBytes,
+                               @Value("${member.response-cache.ttl:30s}") Duration ttl,
+                               @Value("${member.datasource.replica.max-lag:5s}") Duration maxLag) {
+        this.objectMapper = objectMapper;
+        this.writeTracker = writeTracker;
+        this.maxEntries = maxEntries;
+        this.maxEntryBytes = maxEntryBytes;
+        this.ttlMillis = Math.max(Math.max(ttl.toMillis(), maxLag.toMillis()), 1);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        this.notModified = meterRegistry.counter("member.response.cache", "result", "not_modified");
+        this.hits = meterRegistry.counter("member.response.cache", "result", "hit");
+        this.misses = meterRegistry.counter("member.response.cache", "result", "miss");
+        this.replicaReads = meterRegistry.counter("member.response.cache", "result", "replica");
+        Gauge.builder("member.response.cache.size", cache, Map::size)
+                .register(meterRegistry);
+        writeTracker.onWrite(cache::clear);
+    }
+
+    /**
+     * 응답 캐시 키 = 엔드포인트 + 검색 조건 + 페이징 등
+     * 각 부분을 '길이:값' 으로 이어 붙이므로 값에 어떤 문자가 들어 있어도 다른 요청의 키와 겹치지 않는다.
+     */
+    public static String key(String endpoint, MemberSearchCondition condition, Object... extras) {
+        StringBuilder key = new StringBuilder();
+        append(key, endpoint);
+        append(key, MemberSearchKey.of(condition).encode());
+        for (Object extra : extras) {
+            append(key, extra instanceof Pageable ? normalize((Pageable) extra) : String.valueOf(extra));
+        }
+        return key.toString();
+    }
+
+    /**
+     * 결과를 바꾸지 않는 값은 빼고 page, size, sort 만 사용 (unpaged 는 따로 구분)
+     */
+    static String normalize(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return "unpaged";
+        }
+        StringBuilder normalized = new StringBuilder()
+                .append(pageable.getPageNumber()).append(',').append(pageable.getPageSize());
+        for (Sort.Order order : pageable.getSort()) {
+            append(normalized, order.getProperty());
+            append(normalized, order.getDirection().name() + "," + order.isIgnoreCase() + "," + order.getNullHandling());
+        }
+        return normalized.toString();
+    }
+
+    private static void append(StringBuilder key, String part) {
+        key.append(part.length()).append(':').append(part);
+    }
+
+    /**
+     * @param ifNoneMatch 요청의 If-None-Match 헤더 (없으면 null)
+     * @param executor    query 를 실행할 조회 스레드 풀
+     * @param query       캐시에 없을 때만 호출
+     */
+    public CompletableFuture<ResponseEntity<byte[]>> respond(String key, String ifNoneMatch,
+                                                            BoundedQueryExecutors.Bounded executor, Supplier<?> query) {
+        // 쿼리 도중에 변경이 커밋되면 결과가 이 버전보다 새로울 수 있지만,
+        // 그 경우 ETag/캐시가 이미 옛 버전이라 다음 요청에서 다시 조회하므로 안전하다.
+        long version = writeTracker.currentVersion();
+        long bucket = System.currentTimeMillis() / ttlMillis;
+        String etag = etag(key, version, bucket);
+
+        if (matches(ifNoneMatch, etag)) {
+            notModified.increment();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build());
+        }
+
+        CachedResponse cached = cache.get(key);
+        if (cached != null && cached.version == version && cached.bucket == bucket) {
+            hits.increment();
+            return CompletableFuture.completedFuture(ok(etag, cached.body));
+        }
+        misses.increment();
+
+        return executor.submit(() -> ReadRouting.record(query)).thenApply(result -> {
+            byte[] body = serialize(result.getValue());
+            if (!result.isPrimaryOnly()) {
+                replicaReads.increment();
+                return ok(null, body);
+            }
+            if (maxEntries > 0 && body.length <= maxEntryBytes && writeTracker.currentVersion() == version) {
+                cache.put(key, new CachedResponse(version, bucket, body));
+            }
+            return ok(etag, body);
+        });
+    }
+
+    /**
+     * 버전은 프로세스마다 따로 세므로 인스턴스 id 를 붙여서, 재시작 후나 다른 인스턴스의 같은 버전과 겹치지 않게 한다.
+     */
+    String etag(String key, long version, long bucket) {
+        MessageDigest digest = sha256();
+        digest.update(key.getBytes(StandardCharsets.UTF_8));
+        digest.update(ByteBuffer.allocate(Long.BYTES * 2).putLong(version).putLong(bucket).array());
+        byte[] hash = digest.digest();
+        StringBuilder etag = new StringBuilder("\"").append(instanceId).append('-');
+        for (int i = 0; i < ETAG_DIGEST_BYTES; i++) {
+            etag.append(Character.forDigit((hash[i] >> 4) & 0xf, 16)).append(Character.forDigit(hash[i] & 0xf, 16));
+        }
+        return etag.append('"').toString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // 모든 JVM 에 있어야 하는 알고리즘
+        }
+    }
+
+    /**
+     * If-None-Match 는 여러 값(쉼표 구분), 약한 검증자(W/), * 를 허용
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param etag null 이면 ETag 없이 (복제본에서 읽은 결과)
+     */
+    private ResponseEntity<byte[]> ok(String etag, byte[] body) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache()) // 브라우저도 저장은 하되 매번 ETag 로 확인
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private byte[] serialize(Object result) {
+        try {
+            return objectMapper.writeValueAsBytes(result);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class CachedResponse {
+        private final long version;
+        private final long bucket;
+        private final byte[] body;
+
+        CachedResponse(long version, long bucket, byte[] body) {
+            this.version = version;
+            this.bucket = bucket;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package study.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.config.BoundedQueryExecutors;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.TeamAgeStatsDto;
+import study.querydsl.repository.MemberColumnarStore;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 인메모리 컬럼 스냅샷(MemberColumnarStore) 조회 API (member.columnar.enabled=true 일 때만)
+ * DB 를 거치지 않으므로 커밋 직후의 변경은 리스너가 반영하기 전까지 잠깐 안 보일 수 있다.
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "member.columnar.enabled", havingValue = "true")
+public class MemberStatsController {
+
+    private final MemberColumnarStore columnarStore;
+    private final BoundedQueryExecutors queryExecutors;
+
+    /**
+     * 조건에 맞는 회원의 팀별 회원 수, 최소/최대/평균 나이
+     */
+    @GetMapping("/members/stats")
+    public CompletableFuture<List<TeamAgeStatsDto>> statsByTeam(MemberSearchCondition condition) {
+        return queryExecutor().submit(() -> columnarStore.statsByTeam(condition));
+    }
+
+    /**
+     * /v1/members 와 같은 결과 (member_id 순)
+     */
+    @GetMapping("/members/snapshot")
+    public CompletableFuture<List<MemberTeamDto>> search(MemberSearchCondition condition) {
+        return queryExecutor().submit(() -> columnarStore.search(condition));
+    }
+
+    private BoundedQueryExecutors.Bounded queryExecutor() {
+        return queryExecutors.forEndpoint(MemberStatsController.class);
+    }
+}
@@ -0,0 +1,26 @@
+package study.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.config.BoundedQueryExecutors;
+import study.querydsl.dto.TeamWithMembersDto;
+import study.querydsl.repository.TeamQueryRepository;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final TeamQueryRepository teamQueryRepository;
+    private final BoundedQueryExecutors queryExecutors;
+
+    @GetMapping("/teams/with-members")
+    public CompletableFuture<Page<TeamWithMembersDto>> teamsWithMembers(Pageable pageable) {
+        return queryExecutors.forEndpoint(TeamController.class)
+                .submit(() -> teamQueryRepository.findTeamsWithMembers(pageable));
+    }
+}
@@ -0,0 +1,81 @@
+package study.querydsl.dto;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 키셋(seek) 페이징용 커서
+ * offset 대신 마지막으로 본 (age, member_id)를 기준으로 다음 페이지를 찾는다.
+ * 클라이언트에는 encode()한 불투명 토큰만 노출
+ */
+@Getter
+public class KeysetCursor {
+
+    public static final int MAX_SIZE = 1000;
+
+    public enum Order {
+        ID,     // member_id 오름차순
+        AGE_ID  // age, member_id 오름차순
+    }
+
+    private final Order order;
+    private final Integer lastAge;
+    private final Long lastMemberId;
+    private final int size;
+
+    private KeysetCursor(Order order, Integer lastAge, Long lastMemberId, int size) {
+        this.order = order;
+        this.lastAge = lastAge;
+        this.lastMemberId = lastMemberId;
+        this.size = Math.min(Math.max(size, 1), MAX_SIZE);
+    }
+
+    public static KeysetCursor first(Order order, int size) {
+        return new KeysetCursor(order, null, null, size);
+    }
+
+    public boolean isFirst() {
+        return lastMemberId == null;
+    }
+
+    public KeysetCursor next(MemberTeamDto last) {
+        return new KeysetCursor(order, last.getAge(), last.getMemberId(), size);
+    }
+
+    public String encode() {
+        String raw = order.name() + ":" + (lastAge == null ? "" : lastAge) + ":" + lastMemberId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param expected 요청의 order, 커서를 만들 때의 정렬과 다르면 예외 (null 이면 확인하지 않음)
+     */
+    public static KeysetCursor decode(String token, Order expected, int size) {
+        KeysetCursor cursor = decode(token, size);
+        if (expected != null && expected != cursor.order) {
+            throw new IllegalArgumentException("cursor 는 " + cursor.order + " 정렬인데 order=" + expected + " 로 요청했습니다");
+        }
+        return cursor;
+    }
+
+    public static KeysetCursor decode(String token, int size) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("cursor 형식 오류");
+            }
+            Order order = Order.valueOf(parts[0]);
+            Integer lastAge = parts[1].isEmpty() ? null : Integer.valueOf(parts[1]);
+            Long lastMemberId = Long.valueOf(parts[2]);
+            if (order == Order.AGE_ID && lastAge == null) {
+                throw new IllegalArgumentException("AGE_ID 커서에 age가 없음");
+            }
+            return new KeysetCursor(order, lastAge, lastMemberId, size);
+        } catch (IllegalArgumentException e) { // NumberFormatException 포함
+            throw new IllegalArgumentException("잘못된 cursor 토큰입니다: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package study.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 키셋 페이징 결과
+ * 전체 count를 구하지 않고 다음 페이지 존재 여부와 다음 커서 토큰만 내려준다.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetSlice<T> {
+    private final List<T> content;
+    private final boolean hasNext;
+    private final String nextCursor; // 마지막 페이지면 null
+}
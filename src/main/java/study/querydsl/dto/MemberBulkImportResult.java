@@ -0,0 +1,34 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class MemberBulkImportResult {
+
+    public static final int MAX_REJECTION_SAMPLES = 100;
+
+    private long totalRows;
+    private long insertedRows;
+    private long rejectedRows;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<ChunkTiming> chunks = new ArrayList<>();
+    private List<String> rejections = new ArrayList<>(); // 앞에서부터 최대 MAX_REJECTION_SAMPLES 건
+
+    public void reject(long lineNumber, String reason) {
+        rejectedRows++;
+        if (rejections.size() < MAX_REJECTION_SAMPLES) {
+            rejections.add("line " + lineNumber + ": " + reason);
+        }
+    }
+
+    @Data
+    public static class ChunkTiming {
+        private final int chunk;
+        private final int rows;
+        private final long millis;
+    }
+}
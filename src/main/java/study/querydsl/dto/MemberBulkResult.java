@@ -0,0 +1,26 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class MemberBulkResult {
+
+    private final String operation;
+    private long affectedRows;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private int chunkCount;      // 바뀐 row 가 있는 구간 수
+    private long maxChunkMillis;
+    private List<ChunkTiming> chunks = new ArrayList<>(); // 처음 몇 개 구간만 (MemberBulkUpdateService.MAX_CHUNK_TIMINGS)
+
+    @Data
+    public static class ChunkTiming {
+        private final long fromId; // 포함
+        private final long toId;   // 제외
+        private final long rows;
+        private final long millis;
+    }
+}
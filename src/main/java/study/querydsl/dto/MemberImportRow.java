@@ -0,0 +1,18 @@
+package study.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 대량 가져오기 입력 한 줄 (CSV: username,age,teamName)
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MemberImportRow {
+
+    private String username;
+    private Integer age;
+    private String teamName; // 없으면 팀 없이 저장
+}
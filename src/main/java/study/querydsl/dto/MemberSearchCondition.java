@@ -7,6 +7,8 @@ public class MemberSearchCondition {
     // 회원명, 팀명, 나이(ageGoe, ageLoe)
 
     private String username;
+    private String usernameStartsWith; // 앞부분 일치 (인덱스 범위 조회)
+    private String usernameContains;   // 부분 일치, 대소문자 무시 (UsernameTrigramIndex)
     private String teamName;
     private Integer ageGoe;
     private Integer ageLoe;
@@ -0,0 +1,53 @@
+package study.querydsl.dto;
+
+import lombok.Value;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 검색 조건 캐시 키 (count 캐시, 응답 캐시, 같은 검색 합치기에서 공유)
+ * 쿼리에 반영되지 않는 값(빈 문자열 등)은 null 로 맞춰서 같은 쿼리는 같은 키가 되고,
+ * 필드별로 비교하므로 값에 구분자가 들어 있어도 다른 필드로 보이지 않는다.
+ */
+@Value
+public class MemberSearchKey {
+
+    String username;
+    String usernameStartsWith;
+    String usernameContains; // 대소문자 무시 검색이라 소문자로
+    String teamName;
+    Integer ageGoe;
+    Integer ageLoe;
+
+    public static MemberSearchKey of(MemberSearchCondition condition) {
+        return new MemberSearchKey(
+                hasText(condition.getUsername()) ? condition.getUsername() : null,
+                hasText(condition.getUsernameStartsWith()) ? condition.getUsernameStartsWith() : null,
+                hasText(condition.getUsernameContains()) ? condition.getUsernameContains().toLowerCase() : null,
+                hasText(condition.getTeamName()) ? condition.getTeamName() : null,
+                condition.getAgeGoe(),
+                condition.getAgeLoe());
+    }
+
+    public boolean isUnfiltered() {
+        return username == null && usernameStartsWith == null && usernameContains == null
+                && teamName == null && ageGoe == null && ageLoe == null;
+    }
+
+    /**
+     * ETag 다이제스트 등 바이트로 바꿔야 할 때 쓰는 모호하지 않은 직렬화
+     * 값이 없으면 '-', 있으면 '길이:값'
+     */
+    public String encode() {
+        StringBuilder encoded = new StringBuilder();
+        for (Object field : new Object[]{username, usernameStartsWith, usernameContains, teamName, ageGoe, ageLoe}) {
+            if (field == null) {
+                encoded.append('-');
+            } else {
+                String value = field.toString();
+                encoded.append(value.length()).append(':').append(value);
+            }
+        }
+        return encoded.toString();
+    }
+}
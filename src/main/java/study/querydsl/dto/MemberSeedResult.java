@@ -0,0 +1,15 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+
+@Data
+public class MemberSeedResult {
+
+    private long members;
+    private long teams;
+    private int partitions;
+    private int threads;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private boolean skipped; // 이미 회원이 있어서 건너뜀
+}
@@ -0,0 +1,33 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+
+/**
+ * 시드 데이터 설정 (member.seed.*)
+ * 같은 설정이면 스레드 수와 상관없이 같은 데이터가 만들어진다.
+ */
+@Data
+public class MemberSeedSpec {
+
+    public enum AgeDistribution {
+        UNIFORM, // ageMin ~ ageMax 균등
+        NORMAL   // 가운데 값 평균, 표준편차 (ageMax - ageMin) / 6, 범위 밖은 잘라냄
+    }
+
+    public enum NameDistribution {
+        SEQUENTIAL, // member0, member1 ...
+        RANDOM      // 소문자 5~10 글자 (중복 가능)
+    }
+
+    private int members = 100;
+    private int teams = 2;
+    private long randomSeed = 42;
+    private int batchSize = 1000;   // JDBC 배치 크기 = 파티션 하나의 건수
+    private int threads = 4;        // 동시에 insert 하는 스레드(커넥션) 수, 커넥션 풀보다 작게
+    private AgeDistribution ageDistribution = AgeDistribution.UNIFORM;
+    private int ageMin = 0;
+    private int ageMax = 99;
+    private NameDistribution nameDistribution = NameDistribution.SEQUENTIAL;
+    private double teamSkew = 0;    // 팀 배정 zipf 지수 (0 = 균등, 1 이상이면 앞쪽 팀에 몰림)
+    private boolean background = false; // true 면 시작을 기다리지 않고 별도 스레드에서 생성
+}
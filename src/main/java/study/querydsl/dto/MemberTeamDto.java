@@ -2,8 +2,10 @@ package study.querydsl.dto;
 
 import com.querydsl.core.annotations.QueryProjection;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor // Projections.bean / fields 용
 public class MemberTeamDto {
     private Long memberId;
     private String username;
@@ -0,0 +1,21 @@
+package study.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 팀별 회원 수 / 나이 통계 (팀 없는 회원은 teamId, teamName 이 null)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamAgeStatsDto {
+
+    private Long teamId;
+    private String teamName;
+    private long count;
+    private int minAge;
+    private int maxAge;
+    private double avgAge;
+}
@@ -0,0 +1,21 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class TeamWithMembersDto {
+    private Long teamId;
+    private String teamName;
+    private List<MemberDto> members; // 팀당 최대 member.team.max-members-per-team 명 (member_id 순)
+    private long memberCount;        // 팀 전체 회원 수, members 보다 크면 잘린 것
+
+    public TeamWithMembersDto(Long teamId, String teamName, List<MemberDto> members, long memberCount) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.members = members != null ? members : new ArrayList<>();
+        this.memberCount = memberCount;
+    }
+}
@@ -5,6 +5,12 @@ import lombok.*;
 import javax.persistence.*;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_member_username", columnList = "username"),
+        @Index(name = "idx_member_team_age", columnList = "team_id, age"),
+        // age 범위 조회 시 MemberTeamDto에 필요한 member 컬럼을 인덱스만으로 읽기 위한 커버링 인덱스
+        @Index(name = "idx_member_age_cover", columnList = "age, team_id, username, member_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -12,7 +18,8 @@ import javax.persistence.*;
 public class Member {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50) // pooled: 시퀀스 한 번 조회로 id 50개 확보
     @Column(name = "member_id")
     private Long id;
     private String username;
@@ -0,0 +1,85 @@
+package study.querydsl.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.config.StatementCounter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+/**
+ * 쿼리를 별도 스레드의 읽기 전용 트랜잭션(= 별도 커넥션, 별도 EntityManager)에서 실행
+ * EntityManager는 스레드 안전하지 않으므로 호출 스레드의 트랜잭션은 공유하지 않는다.
+ *
+ * 스레드 하나가 커넥션 하나를 쓰므로 스레드 수는 커넥션 풀(hikari 기본 10)보다 작게 잡는다.
+ * 풀과 큐가 가득 차면 호출한 스레드에서 실행(순차 실행과 같아짐)해서 커넥션을 더 쓰지 않는다.
+ * (Executor 빈으로 등록하면 스프링 부트 기본 applicationTaskExecutor가 빠지므로 내부에서만 사용)
+ *
+ * 호출한 스레드가 자기 트랜잭션 커넥션을 잡은 채로 결과를 기다리면 요청 하나가 커넥션 두 개를 쓴다.
+ * 이런 요청이 풀 크기만큼 몰리면 모두가 서로의 커넥션을 기다리며 멈추므로(connectionTimeout 까지)
+ * 동시에 기다릴 수 있는 요청 수를 풀 크기의 절반 미만으로 제한하고, 허용 수를 넘으면 순차 실행한다.
+ */
+@Component
+public class ConcurrentQueryRunner implements DisposableBean {
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final TransactionTemplate readOnlyTx;
+    private final Semaphore waitingPermits;
+    private final Counter sequentialFallbacks;
+
+    public ConcurrentQueryRunner(PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 StatementCounter statementCounter,
+                                 @Value("${member.query-executor.threads:4}") int threads,
+                                 @Value("${member.query-executor.queue-capacity:100}") int queueCapacity,
+                                 @Value("${member.query-executor.max-waiting:0}") int maxWaiting,
+                                 @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("member-query-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(statementCounter); // 호출한 스레드의 N+1 추적 구간에 같이 모음
+        executor.initialize();
+
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+
+        // 0 이하면 풀 크기로 계산 (기본 풀 10 -> 4)
+        this.waitingPermits = new Semaphore(maxWaiting > 0 ? maxWaiting : Math.max((connectionPoolSize - 1) / 2, 0));
+        this.sequentialFallbacks = meterRegistry.counter("member.query.concurrent.fallback");
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> readOnlyTx.execute(status -> query.get()), executor);
+    }
+
+    /**
+     * 커넥션을 잡은 채로 supplyAsync 결과를 기다려도 되는지 확인
+     * true 면 다 쓴 뒤 release() 해야 하고, false 면 호출한 쪽에서 순차 실행한다.
+     */
+    public boolean tryAcquireWaiting() {
+        if (waitingPermits.tryAcquire()) {
+            return true;
+        }
+        sequentialFallbacks.increment();
+        return false;
+    }
+
+    public void releaseWaiting() {
+        waitingPermits.release();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
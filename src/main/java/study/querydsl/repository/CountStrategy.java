@@ -0,0 +1,11 @@
+package study.querydsl.repository;
+
+/**
+ * 페이징 조회 시 전체 count를 구하는 방식
+ * 어떤 방식이든 PageableExecutionUtils를 거치므로 첫 페이지가 size보다 작거나 마지막 페이지면 count 자체를 생략한다.
+ */
+public enum CountStrategy {
+    EXACT,      // 매번 count 쿼리 실행
+    CACHED,     // 검색 조건별로 캐시된 count 사용 (TTL, 회원/팀 변경 시 무효화)
+    ESTIMATED   // 조건이 없으면 DB 통계의 추정 row 수 사용, 조건이 있으면 CACHED와 동일
+}
@@ -0,0 +1,382 @@
+package study.querydsl.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.TeamAgeStatsDto;
+import study.querydsl.repository.MemberSearchPredicates.ResolvedIds;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.repository.MemberSearchShapeCache.prefixEnd;
+
+/**
+ * 회원 분석용 인메모리 컬럼 스냅샷 (member.columnar.enabled=true 일 때만)
+ * 행마다 객체를 두지 않고 컬럼별 primitive 배열에 저장한다.
+ * - member_id: long[], age: int[]
+ * - team: 팀 사전 번호 int[] (0 = 팀 없음), 팀 id/이름은 사전에 한 번만
+ * - username: 사전 번호 int[] (같은 이름은 한 번만 저장)
+ *
+ * MemberSearchCondition 조회와 팀별 집계는 행 구간(partition)을 나눠서 병렬로 훑고,
+ * 구간 안에서는 분기 없이 배열만 비교하는 단순 루프라 JIT 가 벡터화하기 쉽다.
+ * 팀 이름, usernameContains 는 검색 API 와 같이 MemberSearchPredicates.resolve 로 id 로 바꿔서 비교하고
+ * (usernameContains 는 트라이그램 인덱스에서 찾은 최대 max-candidates 명의 행만 확인),
+ * username / usernameStartsWith 는 정렬된 사전에서 찾는다.
+ *
+ * - 처음 조회할 때 DB 에서 읽어서 만든다.
+ * - 이후 회원/팀 저장/변경/삭제는 MemberWriteListener 가 커밋 후 반영 (행 추가 또는 제자리 변경)
+ * - 벌크 쿼리, JDBC 직접 insert (MemberWriteTracker.markBulkWritten) 는 다음 조회 때 다시 만든다. 삭제된 행도 이때 정리된다.
+ *   로딩은 락 밖에서 하고 끝나면 교체하므로 그동안 다른 조회는 이전 스냅샷을 쓴다. (RefreshableSnapshot, UsernameTrigramIndex 와 같은 방식)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "member.columnar.enabled", havingValue = "true")
+public class MemberColumnarStore {
+
+    static final int PARTITION_SIZE = 64 * 1024;
+    static final int NO_TEAM = 0;
+
+    private final MemberSearchPredicates predicates;
+    private final RefreshableSnapshot<Columns> snapshot;
+
+    public MemberColumnarStore(JdbcTemplate jdbcTemplate, MemberWriteTracker writeTracker, MemberSearchPredicates predicates) {
+        this.predicates = predicates;
+        this.snapshot = new RefreshableSnapshot<>(() -> load(jdbcTemplate));
+        writeTracker.onBulkWrite(this::invalidate);
+    }
+
+    /**
+     * MemberRepositoryCustom.search 와 같은 결과 (member_id 순)
+     */
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        ResolvedIds ids = predicates.resolve(condition);
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        return snapshot.read(columns -> {
+            Filter filter = columns.filter(condition, ids);
+            if (filter == null) {
+                return new ArrayList<>();
+            }
+            List<MemberTeamDto> result = new ArrayList<>();
+            for (int[] matches : columns.scan(filter)) {
+                for (int row : matches) {
+                    int team = columns.teamCodes[row];
+                    result.add(new MemberTeamDto(columns.memberIds[row], columns.usernames.get(columns.usernameCodes[row]),
+                            columns.ages[row], columns.teamIds.get(team), columns.teamNames.get(team)));
+                }
+            }
+            if (!columns.ordered) {
+                result.sort(Comparator.comparing(MemberTeamDto::getMemberId));
+            }
+            return result;
+        });
+    }
+
+    public long count(MemberSearchCondition condition) {
+        ResolvedIds ids = predicates.resolve(condition);
+        if (ids == null) {
+            return 0;
+        }
+        return snapshot.read(columns -> {
+            Filter filter = columns.filter(condition, ids);
+            return filter == null ? 0L : columns.scan(filter).stream().mapToLong(matches -> matches.length).sum();
+        });
+    }
+
+    /**
+     * 조건에 맞는 회원의 팀별 회원 수, 최소/최대/평균 나이 (회원이 있는 팀만)
+     */
+    public List<TeamAgeStatsDto> statsByTeam(MemberSearchCondition condition) {
+        ResolvedIds ids = predicates.resolve(condition);
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        return snapshot.read(columns -> {
+            Filter filter = columns.filter(condition, ids);
+            if (filter == null) {
+                return new ArrayList<>();
+            }
+            int teams = columns.teamIds.size();
+            TeamAggregate total = columns.scan(filter).parallelStream()
+                    .map(matches -> columns.aggregate(matches, teams))
+                    .reduce(TeamAggregate::merge) // 구간마다 새로 만든 집계라 왼쪽에 합쳐도 됨
+                    .orElseGet(() -> new TeamAggregate(teams));
+
+            List<TeamAgeStatsDto> result = new ArrayList<>();
+            for (int team = 0; team < teams; team++) {
+                if (total.count[team] > 0) {
+                    result.add(new TeamAgeStatsDto(columns.teamIds.get(team), columns.teamNames.get(team), total.count[team],
+                            total.min[team], total.max[team], (double) total.sum[team] / total.count[team]));
+                }
+            }
+            return result;
+        });
+    }
+
+    public void onMemberSaved(Long memberId, String username, int age, Long teamId) {
+        snapshot.apply(columns -> columns.put(memberId, username, age, teamId));
+    }
+
+    public void onMemberDeleted(Long memberId) {
+        snapshot.apply(columns -> columns.delete(memberId));
+    }
+
+    public void onTeamSaved(Long teamId, String name) {
+        snapshot.apply(columns -> columns.teamNames.set(columns.teamCode(teamId), name));
+    }
+
+    public void invalidate() {
+        snapshot.invalidate();
+    }
+
+    private static Columns load(JdbcTemplate jdbcTemplate) {
+        long start = System.nanoTime();
+        Columns columns = new Columns();
+        jdbcTemplate.query("select id, name from team",
+                (RowCallbackHandler) rs -> columns.teamNames.set(columns.teamCode(rs.getLong(1)), rs.getString(2)));
+        jdbcTemplate.query("select member_id, username, age, team_id from member order by member_id",
+                (RowCallbackHandler) rs -> {
+                    long teamId = rs.getLong(4);
+                    columns.put(rs.getLong(1), rs.getString(2), rs.getInt(3), rs.wasNull() ? null : teamId);
+                });
+        log.info("columnar snapshot loaded: {} members, {} teams in {} ms",
+                columns.rows, columns.teamIds.size() - 1, (System.nanoTime() - start) / 1_000_000);
+        return columns;
+    }
+
+    private static class Columns {
+        // 행 컬럼
+        long[] memberIds = new long[1024];
+        int[] ages = new int[1024];
+        int[] teamCodes = new int[1024];
+        int[] usernameCodes = new int[1024];
+        boolean[] live = new boolean[1024]; // 삭제된 행은 false
+        int rows;
+        boolean ordered = true; // 행이 member_id 순인지 (로딩 후 더 작은 id 가 추가되면 false)
+        final Map<Long, Integer> rowByMemberId = new HashMap<>();
+
+        // 사전
+        final List<String> usernames = new ArrayList<>();
+        final NavigableMap<String, Integer> usernameCodeByName = new TreeMap<>(); // 앞부분 일치를 범위로 찾기 위해 정렬
+        final List<Long> teamIds = new ArrayList<>(Collections.singletonList(null));    // 0 = 팀 없음
+        final List<String> teamNames = new ArrayList<>(Collections.singletonList(null));
+        final Map<Long, Integer> teamCodeById = new HashMap<>();
+
+        void put(Long memberId, String username, int age, Long teamId) {
+            Integer row = rowByMemberId.get(memberId);
+            if (row == null) {
+                row = rows++;
+                if (row > 0 && memberId <= memberIds[row - 1]) {
+                    ordered = false;
+                }
+                if (row == memberIds.length) {
+                    int capacity = row * 2;
+                    memberIds = Arrays.copyOf(memberIds, capacity);
+                    ages = Arrays.copyOf(ages, capacity);
+                    teamCodes = Arrays.copyOf(teamCodes, capacity);
+                    usernameCodes = Arrays.copyOf(usernameCodes, capacity);
+                    live = Arrays.copyOf(live, capacity);
+                }
+                memberIds[row] = memberId;
+                rowByMemberId.put(memberId, row);
+            }
+            ages[row] = age;
+            teamCodes[row] = teamId == null ? NO_TEAM : teamCode(teamId);
+            usernameCodes[row] = usernameCode(username);
+            live[row] = true;
+        }
+
+        void delete(Long memberId) {
+            Integer row = rowByMemberId.remove(memberId);
+            if (row != null) {
+                live[row] = false;
+            }
+        }
+
+        int teamCode(Long teamId) {
+            return teamCodeById.computeIfAbsent(teamId, id -> {
+                teamIds.add(id);
+                teamNames.add(null);
+                return teamIds.size() - 1;
+            });
+        }
+
+        /**
+         * TreeMap 은 null 키를 못 넣으므로 null 이름은 사전에 넣지 않고 따로 한 번만 둔다.
+         */
+        private int usernameCode(String username) {
+            if (username == null) {
+                int code = usernames.indexOf(null);
+                if (code < 0) {
+                    usernames.add(null);
+                    code = usernames.size() - 1;
+                }
+                return code;
+            }
+            return usernameCodeByName.computeIfAbsent(username, name -> {
+                usernames.add(name);
+                return usernames.size() - 1;
+            });
+        }
+
+        /**
+         * 조건을 사전 번호 기준 필터로 변환, 맞는 값이 하나도 없으면 null
+         */
+        Filter filter(MemberSearchCondition condition, ResolvedIds ids) {
+            Filter filter = new Filter();
+            filter.ageMin = condition.getAgeGoe() != null ? condition.getAgeGoe() : Integer.MIN_VALUE;
+            filter.ageMax = condition.getAgeLoe() != null ? condition.getAgeLoe() : Integer.MAX_VALUE;
+
+            if (ids.teamIds != null) {
+                filter.teams = new boolean[teamIds.size()];
+                boolean any = false;
+                for (Long teamId : ids.teamIds) {
+                    Integer team = teamCodeById.get(teamId);
+                    if (team != null) {
+                        filter.teams[team] = true;
+                        any = true;
+                    }
+                }
+                if (!any) {
+                    return null;
+                }
+            }
+
+            String username = hasText(condition.getUsername()) ? condition.getUsername() : null;
+            String prefix = hasText(condition.getUsernameStartsWith()) ? condition.getUsernameStartsWith() : null;
+            if (username != null || prefix != null) {
+                // 정렬된 사전에서 이름 하나 또는 앞부분 범위만 찾는다.
+                NavigableMap<String, Integer> names = prefix == null
+                        ? usernameCodeByName
+                        : usernameCodeByName.subMap(prefix, true, prefixEnd(prefix), false);
+                if (username != null) {
+                    Integer code = names.get(username);
+                    names = code == null ? Collections.emptyNavigableMap() : names.subMap(username, true, username, true);
+                }
+                if (names.isEmpty()) {
+                    return null;
+                }
+                filter.usernames = new boolean[usernames.size()];
+                for (int code : names.values()) {
+                    filter.usernames[code] = true;
+                }
+            }
+
+            if (ids.usernameIds != null) {
+                // 트라이그램 인덱스가 찾은 회원의 행만 확인
+                int[] candidates = new int[ids.usernameIds.size()];
+                int n = 0;
+                for (Long memberId : ids.usernameIds) {
+                    Integer row = rowByMemberId.get(memberId);
+                    if (row != null) {
+                        candidates[n++] = row;
+                    }
+                }
+                if (n == 0) {
+                    return null;
+                }
+                filter.candidateRows = Arrays.copyOf(candidates, n);
+                Arrays.sort(filter.candidateRows);
+            }
+            return filter;
+        }
+
+        /**
+         * 구간별 결과를 행 순서대로 반환 (후보 행이 있으면 그 행만)
+         */
+        List<int[]> scan(Filter filter) {
+            if (filter.candidateRows != null) {
+                return Collections.singletonList(scan(filter, filter.candidateRows));
+            }
+            return IntStream.range(0, (rows + PARTITION_SIZE - 1) / PARTITION_SIZE).parallel()
+                    .mapToObj(p -> scan(filter, p))
+                    .collect(Collectors.toList());
+        }
+
+        private int[] scan(Filter filter, int partition) {
+            int from = partition * PARTITION_SIZE;
+            int to = Math.min(from + PARTITION_SIZE, rows);
+            int[] matches = new int[to - from];
+            int n = 0;
+            for (int row = from; row < to; row++) {
+                matches[n] = row;
+                n += matches(filter, row) ? 1 : 0; // 분기 없이 누적
+            }
+            return Arrays.copyOf(matches, n);
+        }
+
+        private int[] scan(Filter filter, int[] candidateRows) {
+            int[] matches = new int[candidateRows.length];
+            int n = 0;
+            for (int row : candidateRows) {
+                matches[n] = row;
+                n += matches(filter, row) ? 1 : 0;
+            }
+            return Arrays.copyOf(matches, n);
+        }
+
+        private boolean matches(Filter filter, int row) {
+            int age = ages[row];
+            return live[row]
+                    & age >= filter.ageMin
+                    & age <= filter.ageMax
+                    & (filter.teams == null || filter.teams[teamCodes[row]])
+                    & (filter.usernames == null || filter.usernames[usernameCodes[row]]);
+        }
+
+        TeamAggregate aggregate(int[] matches, int teams) {
+            TeamAggregate aggregate = new TeamAggregate(teams);
+            for (int row : matches) {
+                int team = teamCodes[row];
+                int age = ages[row];
+                aggregate.count[team]++;
+                aggregate.sum[team] += age;
+                aggregate.min[team] = Math.min(aggregate.min[team], age);
+                aggregate.max[team] = Math.max(aggregate.max[team], age);
+            }
+            return aggregate;
+        }
+    }
+
+    private static class Filter {
+        int ageMin;
+        int ageMax;
+        boolean[] teams;     // 팀 사전 번호별 일치 여부, null 이면 조건 없음
+        boolean[] usernames; // username 사전 번호별 일치 여부, null 이면 조건 없음
+        int[] candidateRows; // usernameContains 에 맞는 행 (정렬), null 이면 전체 구간
+    }
+
+    private static class TeamAggregate {
+        final long[] count;
+        final long[] sum;
+        final int[] min;
+        final int[] max;
+
+        TeamAggregate(int teams) {
+            count = new long[teams];
+            sum = new long[teams];
+            min = new int[teams];
+            max = new int[teams];
+            Arrays.fill(min, Integer.MAX_VALUE);
+            Arrays.fill(max, Integer.MIN_VALUE);
+        }
+
+        TeamAggregate merge(TeamAggregate other) {
+            for (int team = 0; team < count.length; team++) {
+                count[team] += other.count[team];
+                sum[team] += other.sum[team];
+                min[team] = Math.min(min[team], other.min[team]);
+                max[team] = Math.max(max[team], other.max[team]);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package study.querydsl.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberSearchKey;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 페이징 count 전략 처리
+ * 실제 count 쿼리는 MemberRepositoryImpl이 넘겨주고, 여기서는 캐시/추정치로 대체할지만 결정한다.
+ */
+@Slf4j
+@Component
+public class MemberCountProvider {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MemberWriteTracker writeTracker;
+    private final Duration ttl;
+    private final int maxEntries;
+
+    private volatile Boolean estimateSupported; // 처음 ESTIMATED 요청 때 DB 종류로 결정
+
+    private final Map<MemberSearchKey, CachedCount> cache = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public MemberCountProvider(JdbcTemplate jdbcTemplate,
+                               MemberWriteTracker writeTracker,
+                               MeterRegistry meterRegistry,
+                               @Value("${member.count-cache.ttl:30s}") Duration ttl,
+                               @Value("${member.count-cache.max-entries:10000}") int maxEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeTracker = writeTracker;
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.hits = meterRegistry.counter("member.count.cache", "result", "hit");
+        this.misses = meterRegistry.counter("member.count.cache", "result", "miss");
+        Gauge.builder("member.count.cache.hit.ratio", this, MemberCountProvider::hitRatio)
+                .register(meterRegistry);
+        Gauge.builder("member.count.cache.size", cache, Map::size)
+                .register(meterRegistry);
+    }
+
+    public LongSupplier total(CountStrategy strategy, MemberSearchCondition condition, LongSupplier exactCount) {
+        switch (strategy) {
+            case ESTIMATED:
+                if (isUnfiltered(condition)) {
+                    return () -> estimatedTotal(condition, exactCount);
+                }
+                return () -> cachedTotal(condition, exactCount);
+            case CACHED:
+                return () -> cachedTotal(condition, exactCount);
+            default:
+                return exactCount;
+        }
+    }
+
+    private long cachedTotal(MemberSearchCondition condition, LongSupplier exactCount) {
+        MemberSearchKey key = MemberSearchKey.of(condition);
+        long version = writeTracker.currentVersion();
+        long now = System.currentTimeMillis();
+
+        CachedCount cached = cache.get(key);
+        if (cached != null && cached.version == version && cached.expiresAt > now) {
+            hits.increment();
+            return cached.count;
+        }
+        misses.increment();
+
+        long count = exactCount.getAsLong();
+        if (cache.size() >= maxEntries) {
+            cache.clear(); // 조건 조합이 폭증하는 경우를 막는 단순한 상한
+        }
+        cache.put(key, new CachedCount(count, version, now + ttl.toMillis()));
+        return count;
+    }
+
+    /**
+     * 조건 없는 전체 조회는 H2 통계의 추정 row 수를 사용
+     * H2 가 아니거나 추정치를 얻지 못하면 캐시된 정확한 count로 대체
+     * (EntityManager 로 실행하면 실패 시 트랜잭션이 rollback-only 가 되므로 JDBC 로 직접 조회)
+     */
+    private long estimatedTotal(MemberSearchCondition condition, LongSupplier exactCount) {
+        if (!isEstimateSupported()) {
+            return cachedTotal(condition, exactCount);
+        }
+        try {
+            List<Long> estimate = jdbcTemplate.queryForList(
+                    "select row_count_estimate from information_schema.tables where table_name = 'MEMBER'", Long.class);
+            if (!estimate.isEmpty() && estimate.get(0) != null && estimate.get(0) > 0) {
+                return estimate.get(0);
+            }
+        } catch (DataAccessException e) {
+            log.warn("row_count_estimate 조회 실패, 이후로는 count 캐시 사용: {}", e.getMessage());
+            estimateSupported = false;
+        }
+        return cachedTotal(condition, exactCount);
+    }
+
+    private boolean isEstimateSupported() {
+        Boolean supported = estimateSupported;
+        if (supported == null) {
+            try {
+                supported = "H2".equals(jdbcTemplate.execute(
+                        (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+            } catch (DataAccessException e) {
+                supported = false;
+            }
+            estimateSupported = supported;
+        }
+        return supported;
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    static boolean isUnfiltered(MemberSearchCondition condition) {
+        return MemberSearchKey.of(condition).isUnfiltered();
+    }
+
+    private static class CachedCount {
+        private final long count;
+        private final long version;
+        private final long expiresAt;
+
+        CachedCount(long count, long version, long expiresAt) {
+            this.count = count;
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
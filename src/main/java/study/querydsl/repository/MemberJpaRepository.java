@@ -3,7 +3,9 @@ package study.querydsl.repository;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.dto.QMemberTeamDto;
@@ -18,7 +20,12 @@ import static org.springframework.util.StringUtils.*;
 import static study.querydsl.entity.QMember.*;
 import static study.querydsl.entity.QTeam.*;
 
+/**
+ * 조회 메서드는 읽기 전용 트랜잭션 (FlushMode.MANUAL, 스냅샷 미보관)
+ * 바깥 쓰기 트랜잭션에 참여하는 경우에도 엔티티 조회는 READ_ONLY 힌트로 스냅샷을 남기지 않는다.
+ */
 @Repository
+@Transactional(readOnly = true)
 public class MemberJpaRepository {
     private final EntityManager em;
     private final JPAQueryFactory queryFactory;
@@ -29,6 +36,7 @@ public class MemberJpaRepository {
     }
 
     // 저장
+    @Transactional
     public void save(Member member) {
         em.persist(member);
     }
@@ -40,18 +48,21 @@ public class MemberJpaRepository {
 
     public List<Member> findAll() {
         return em.createQuery("select  m from Member m", Member.class)
+                .setHint(QueryHints.READ_ONLY, true)
                 .getResultList();
     }
 
     public List<Member> findAll_QueryDsl() {
         return queryFactory
                 .selectFrom(member)
+                .setHint(QueryHints.READ_ONLY, true)
                 .fetch();
     }
 
     public List<Member> findByUsername(String username) {
         return em.createQuery("select m from Member m where m.username = :username", Member.class)
                 .setParameter("username", username)
+                .setHint(QueryHints.READ_ONLY, true)
                 .getResultList();
     }
 
@@ -59,6 +70,7 @@ public class MemberJpaRepository {
         return queryFactory
                 .selectFrom(member)
                 .where(member.username.eq((username)))
+                .setHint(QueryHints.READ_ONLY, true)
                 .fetch();
     }
 
@@ -68,6 +80,12 @@ public class MemberJpaRepository {
         if (hasText(condition.getUsername())) {
             builder.and(member.username.eq(condition.getUsername()));
         }
+        if (hasText(condition.getUsernameStartsWith())) {
+            builder.and(member.username.startsWith(condition.getUsernameStartsWith()));
+        }
+        if (hasText(condition.getUsernameContains())) {
+            builder.and(member.username.containsIgnoreCase(condition.getUsernameContains()));
+        }
         if (hasText(condition.getTeamName())) {
             builder.and(team.name.eq(condition.getTeamName()));
         }
@@ -104,6 +122,8 @@ public class MemberJpaRepository {
                 .leftJoin(member.team, QTeam.team)
                 .where(
                         usernameEq(condition.getUsername()),
+                        usernameStartsWith(condition.getUsernameStartsWith()),
+                        usernameContains(condition.getUsernameContains()),
                         teamNameEq(condition.getTeamName()),
                         ageGoe(condition.getAgeGoe()),
                         ageLoe(condition.getAgeLoe())
@@ -115,6 +135,16 @@ public class MemberJpaRepository {
         return hasText(username) ? member.username.eq(username) : null;
     }
 
+    // like 'prefix%' (와일드카드 문자는 이스케이프됨)
+    private BooleanExpression usernameStartsWith(String prefix) {
+        return hasText(prefix) ? member.username.startsWith(prefix) : null;
+    }
+
+    // 트라이그램 인덱스 없이 like '%text%' 로 찾는 단순한 버전 (MemberRepository.search 와 같은 결과, 대소문자 무시)
+    private BooleanExpression usernameContains(String text) {
+        return hasText(text) ? member.username.containsIgnoreCase(text) : null;
+    }
+
     private BooleanExpression teamNameEq(String teamName) {
         return hasText(teamName) ? team.name.eq(teamName) : null;
     }
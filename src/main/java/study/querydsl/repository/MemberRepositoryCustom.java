@@ -2,16 +2,30 @@ package study.querydsl.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.KeysetCursor;
+import study.querydsl.dto.KeysetSlice;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 
 
 import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * 검색 전용 - 읽기 전용 트랜잭션 (FlushMode.MANUAL, 스냅샷 미보관)
+ * searchStream 은 스트림을 다 읽을 때까지 바깥 트랜잭션이 열려 있어야 한다.
+ */
+@Transactional(readOnly = true)
 public interface MemberRepositoryCustom {
     List<MemberTeamDto> search(MemberSearchCondition condition);
     Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
+    Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable, CountStrategy countStrategy);
+    Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable, CountStrategy countStrategy);
+    Page<MemberTeamDto> searchPageConcurrent(MemberSearchCondition condition, Pageable pageable, CountStrategy countStrategy);
+    Stream<MemberTeamDto> searchStream(MemberSearchCondition condition, int fetchSize);
+    KeysetSlice<MemberTeamDto> searchSlice(MemberSearchCondition condition, KeysetCursor cursor);
 
 
 }
@@ -1,96 +1,142 @@
 package study.querydsl.repository;
 
-import com.querydsl.core.QueryResults;
-import com.querydsl.core.types.dsl.BooleanExpression;
+import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.support.PageableExecutionUtils;
+import study.querydsl.dto.KeysetCursor;
+import study.querydsl.dto.KeysetSlice;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.dto.QMemberTeamDto;
-import study.querydsl.entity.Member;
-import study.querydsl.entity.QTeam;
+import study.querydsl.repository.MemberSearchPredicates.ResolvedIds;
 
 import javax.persistence.EntityManager;
-
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.entity.QMember.member;
 import static study.querydsl.entity.QTeam.team;
 
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
+    private final EntityManager em;
     private final JPAQueryFactory queryFactory;
-
-    public MemberRepositoryImpl(EntityManager em) {
+    private final MemberCountProvider countProvider;
+    private final MemberSearchPredicates predicates;
+    private final MemberSearchShapeCache shapeCache;
+    private final ConcurrentQueryRunner concurrentQueryRunner;
+
+    public MemberRepositoryImpl(EntityManager em, MemberCountProvider countProvider, MemberSearchPredicates predicates,
+                                MemberSearchShapeCache shapeCache, ConcurrentQueryRunner concurrentQueryRunner) {
+        this.em = em;
         this.queryFactory = new JPAQueryFactory(em);
+        this.countProvider = countProvider;
+        this.predicates = predicates;
+        this.shapeCache = shapeCache;
+        this.concurrentQueryRunner = concurrentQueryRunner;
     }
 
+    /**
+     * 조건 모양별로 미리 만들어 둔 JPQL에 파라미터만 바인딩 (MemberSearchShapeCache)
+     * where 절은 count / stream 과 같은 MemberSearchPredicates 조건이다.
+     */
     @Override
-
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
-        return queryFactory
-                .select(new QMemberTeamDto(
-                        member.id.as("memberId"),
-                        member.username,
-                        member.age,
-                        team.id.as("teamId"),
-                        team.name.as("teamName")
-                ))
-                .from(member)
-                .leftJoin(member.team, QTeam.team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
-                .fetch();
+        ResolvedIds ids = resolveIds(condition);
+        if (ids == null) {
+            return new ArrayList<>(); // 없는 팀이면 조회할 필요 없음
+        }
+        return shapeCache.createQuery(em, condition, ids).getResultList();
     }
 
-
     @Override
     public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
-        List<MemberTeamDto> content = queryFactory
-                .select(new QMemberTeamDto(
-                        member.id.as("memberId"),
-                        member.username,
-                        member.age,
-                        team.id.as("teamId"),
-                        team.name.as("teamName")
-                ))
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
-                .offset(pageable.getOffset())// 몇번쨰 부터 시작할 것임
-                .limit(pageable.getPageSize()) // 한 페이지에 몇개까지 가지고 옴
-                .fetch();   // content만 가져옴
-//                .fetchResults();
-        JPAQuery<Member> countQuery = queryFactory.select(member)
-                .leftJoin(member)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                );
-        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchCount);
+        return searchPageSimple(condition, pageable, CountStrategy.EXACT);
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable, CountStrategy countStrategy) {
+        ResolvedIds ids = resolveIds(condition);
+        List<MemberTeamDto> content = content(condition, ids, pageable);
+        return PageableExecutionUtils.getPage(content, pageable,
+                countProvider.total(countStrategy, condition, () -> count(condition, ids)));
     }
 
     @Override
     public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
-        List<MemberTeamDto> content = queryFactory
+        return searchPageComplex(condition, pageable, CountStrategy.EXACT);
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable, CountStrategy countStrategy) {
+        ResolvedIds ids = resolveIds(condition); // content 와 count 가 같은 id 목록을 쓰도록 한 번만 조회
+        List<MemberTeamDto> content = content(condition, ids, pageable);
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                countProvider.total(countStrategy, condition, () -> count(condition, ids)));
+    }
+
+    /**
+     * searchPageComplex 와 같은 결과를 content 쿼리와 count 쿼리를 동시에 실행해서 만든다.
+     * count는 memberQueryExecutor 스레드의 별도 트랜잭션에서 실행되므로 호출한 트랜잭션의 미커밋 변경은 보이지 않는다.
+     * count가 필요 없는 페이지(PageableExecutionUtils가 추론 가능)면 count 결과는 버린다.
+     * 동시 실행 중인 요청이 많아 커넥션 풀이 모자랄 수 있으면 searchPageComplex 로 순차 실행한다.
+     */
+    @Override
+    public Page<MemberTeamDto> searchPageConcurrent(MemberSearchCondition condition, Pageable pageable, CountStrategy countStrategy) {
+        if (!concurrentQueryRunner.tryAcquireWaiting()) {
+            return searchPageComplex(condition, pageable, countStrategy);
+        }
+        try {
+            ResolvedIds ids = resolveIds(condition);
+            CompletableFuture<Long> total = concurrentQueryRunner.supplyAsync(
+                    () -> countProvider.total(countStrategy, condition, () -> count(condition, ids)).getAsLong());
+            return PageableExecutionUtils.getPage(content(condition, ids, pageable), pageable, total::join);
+        } finally {
+            concurrentQueryRunner.releaseWaiting();
+        }
+    }
+
+    /**
+     * 페이징 content 쿼리도 search 와 같은 모양별 JPQL 에 offset / limit 만 추가
+     */
+    private List<MemberTeamDto> content(MemberSearchCondition condition, ResolvedIds ids, Pageable pageable) {
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        return shapeCache.createQuery(em, condition, ids)
+                .setFirstResult((int) pageable.getOffset()) // 몇번째 부터 시작할 것임
+                .setMaxResults(pageable.getPageSize())      // 한 페이지에 몇개까지 가지고 옴
+                .getResultList();
+    }
+
+    /**
+     * 팀 이름, usernameContains 를 id 목록으로 변환. 맞는 회원이 있을 수 없으면 null
+     */
+    ResolvedIds resolveIds(MemberSearchCondition condition) {
+        return predicates.resolve(condition);
+    }
+
+    /**
+     * 결과를 한 번에 List로 올리지 않고 forward-only 커서(ScrollableResults)로 한 건씩 읽는다.
+     * 트랜잭션 안에서 호출하고, 다 쓰면 반드시 close (try-with-resources) 해야 커서가 닫힌다.
+     */
+    @Override
+    public Stream<MemberTeamDto> searchStream(MemberSearchCondition condition, int fetchSize) {
+        ResolvedIds ids = resolveIds(condition);
+        if (ids == null) {
+            return Stream.empty();
+        }
+        CloseableIterator<MemberTeamDto> iterator = queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
                         member.username,
@@ -100,43 +146,46 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                 ))
                 .from(member)
                 .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
-                .offset(pageable.getOffset())// 몇번쨰 부터 시작할 것임
-                .limit(pageable.getPageSize()) // 한 페이지에 몇개까지 가지고 옴
-                .fetch();   // content만 가져옴
-//                .fetchResults();
-        JPAQuery<Member> countQuery = queryFactory
-                .select(member)
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                );
-
-        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchCount);
-    }
-
-    private BooleanExpression usernameEq(String username) {
-        return hasText(username) ? member.username.eq(username) : null;
+                .where(MemberSearchPredicates.where(condition, ids))
+                .setHint(QueryHints.FETCH_SIZE, fetchSize) // JDBC 드라이버가 한 번에 가져올 row 수
+                .setHint(QueryHints.READ_ONLY, true)
+                .iterate(); // 하이버네이트에서는 ScrollMode.FORWARD_ONLY 로 scroll
+
+        Spliterator<MemberTeamDto> spliterator =
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(iterator::close);
     }
 
-    private BooleanExpression teamNameEq(String teamName) {
-        return hasText(teamName) ? team.name.eq(teamName) : null;
+    long count(MemberSearchCondition condition, ResolvedIds ids) {
+        return ids == null ? 0 : countQuery(condition, ids).fetchOne();
     }
 
-    private BooleanExpression ageGoe(Integer ageGoe) {
-        return ageGoe != null ? member.age.goe(ageGoe) : null;
+    /**
+     * count 전용 쿼리
+     * member.count()만 조회한다. 팀 조건은 team_id 비교로 바뀌므로 team 조인이 필요 없다.
+     * @param ids content 쿼리에 쓴 것과 같은 resolveIds 결과 (null 이 아니어야 함)
+     */
+    JPAQuery<Long> countQuery(MemberSearchCondition condition, ResolvedIds ids) {
+        return queryFactory
+                .select(member.count())
+                .from(member)
+                .where(MemberSearchPredicates.where(condition, ids));
     }
 
-    private BooleanExpression ageLoe(Integer ageLoe) {
-        return ageLoe != null ? member.age.loe(ageLoe) : null;
+    /**
+     * 키셋(seek) 페이징
+     * offset 없이 마지막으로 본 키 이후부터 읽으므로 몇 번째 페이지든 쿼리 비용이 같다.
+     */
+    @Override
+    public KeysetSlice<MemberTeamDto> searchSlice(MemberSearchCondition condition, KeysetCursor cursor) {
+        ResolvedIds ids = resolveIds(condition);
+        List<MemberTeamDto> rows = ids == null
+                ? new ArrayList<>()
+                : shapeCache.createSliceQuery(em, condition, ids, cursor).getResultList();
+
+        boolean hasNext = rows.size() > cursor.getSize();
+        List<MemberTeamDto> content = hasNext ? rows.subList(0, cursor.getSize()) : rows;
+        String nextCursor = hasNext ? cursor.next(content.get(content.size() - 1)).encode() : null;
+        return new KeysetSlice<>(content, hasNext, nextCursor);
     }
 }
@@ -0,0 +1,187 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.QMember;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.repository.MemberSearchShapeCache.*;
+
+/**
+ * 회원 검색 조건 -> QueryDSL 조건
+ * search / 페이징 content / slice (MemberSearchShapeCache 의 모양별 JPQL), count, stream, 벌크 변경(MemberBulkUpdateService)이
+ * 모두 여기서 만든 조건을 쓴다.
+ *
+ * - 팀 이름은 캐시된 팀 id, usernameContains 는 트라이그램 인덱스에서 찾은 member id 로 먼저 바꿔서(resolve)
+ *   member 컬럼만 비교한다. (team 조인 불필요, 벌크 update / delete 에도 그대로 사용)
+ * - 모양별 JPQL 은 값 자리에 이름 있는 파라미터(:username 등)를 넣은 같은 조건으로 한 번만 만들고,
+ *   실행할 때 parameters 로 바인딩한다.
+ */
+@Component
+public class MemberSearchPredicates {
+
+    private final TeamIdResolver teamIdResolver;
+    private final UsernameTrigramIndex usernameIndex;
+
+    public MemberSearchPredicates(TeamIdResolver teamIdResolver, UsernameTrigramIndex usernameIndex) {
+        this.teamIdResolver = teamIdResolver;
+        this.usernameIndex = usernameIndex;
+    }
+
+    /**
+     * 팀 이름, usernameContains 를 id 목록으로 변환
+     * @return 맞는 회원이 있을 수 없으면(없는 팀 이름, usernameContains 에 맞는 회원 없음) null
+     */
+    public ResolvedIds resolve(MemberSearchCondition condition) {
+        List<Long> teamIds = null;
+        if (hasText(condition.getTeamName())) {
+            teamIds = teamIdResolver.findIdsByName(condition.getTeamName());
+            if (teamIds.isEmpty()) {
+                return null;
+            }
+        }
+        List<Long> usernameIds = null;
+        if (hasText(condition.getUsernameContains())) {
+            usernameIds = usernameIndex.findIds(condition.getUsernameContains());
+            if (usernameIds.isEmpty()) {
+                return null;
+            }
+        }
+        return new ResolvedIds(teamIds, usernameIds);
+    }
+
+    /**
+     * 값을 넣은 조건 (count, stream, 벌크 변경)
+     * @param ids resolve 결과 (null 이 아니어야 함)
+     * @return 조건이 없으면 null
+     */
+    public static Predicate where(MemberSearchCondition condition, ResolvedIds ids) {
+        Map<String, Object> values = parameters(condition, ids);
+        return where(member, shapeOf(condition), new Values() {
+            @Override
+            public Expression<String> string(String name) {
+                return Expressions.constant((String) values.get(name));
+            }
+
+            @Override
+            public Expression<Integer> number(String name) {
+                return Expressions.constant((Integer) values.get(name));
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public BooleanExpression in(NumberPath<Long> path, String name) {
+                return path.in((Collection<Long>) values.get(name));
+            }
+        });
+    }
+
+    /**
+     * 모양별 JPQL 용, 값 자리에 :이름 파라미터
+     */
+    static Predicate where(QMember m, int shape) {
+        return where(m, shape, new Values() {
+            @Override
+            public Expression<String> string(String name) {
+                return Expressions.stringTemplate(":" + name);
+            }
+
+            @Override
+            public Expression<Integer> number(String name) {
+                return Expressions.numberTemplate(Integer.class, ":" + name);
+            }
+
+            @Override
+            public BooleanExpression in(NumberPath<Long> path, String name) {
+                return Expressions.booleanTemplate("{0} in :" + name, path);
+            }
+        });
+    }
+
+    /**
+     * 조건 모양의 파라미터 이름 -> 값 (where 와 같은 순서)
+     */
+    static Map<String, Object> parameters(MemberSearchCondition condition, ResolvedIds ids) {
+        int shape = shapeOf(condition);
+        Map<String, Object> values = new LinkedHashMap<>();
+        if ((shape & USERNAME) != 0) {
+            values.put("username", condition.getUsername());
+        }
+        if ((shape & USERNAME_PREFIX) != 0) {
+            values.put("prefixFrom", condition.getUsernameStartsWith());
+            values.put("prefixTo", prefixEnd(condition.getUsernameStartsWith()));
+        }
+        if ((shape & USERNAME_IDS) != 0) {
+            values.put("usernameIds", ids.usernameIds);
+        }
+        if ((shape & TEAM_NAME) != 0) {
+            values.put("teamIds", ids.teamIds);
+        }
+        if ((shape & AGE_GOE) != 0) {
+            values.put("ageGoe", condition.getAgeGoe());
+        }
+        if ((shape & AGE_LOE) != 0) {
+            values.put("ageLoe", condition.getAgeLoe());
+        }
+        return values;
+    }
+
+    private static Predicate where(QMember m, int shape, Values values) {
+        List<Predicate> predicates = new ArrayList<>();
+        if ((shape & USERNAME) != 0) {
+            predicates.add(m.username.eq(values.string("username")));
+        }
+        if ((shape & USERNAME_PREFIX) != 0) {
+            // like 'prefix%' 대신 범위 조건 -> username 인덱스 범위 스캔
+            predicates.add(m.username.goe(values.string("prefixFrom")).and(m.username.lt(values.string("prefixTo"))));
+        }
+        if ((shape & USERNAME_IDS) != 0) {
+            // like '%text%' 대신 트라이그램 인덱스에서 찾은 member id (PK 조회)
+            predicates.add(values.in(m.id, "usernameIds"));
+        }
+        if ((shape & TEAM_NAME) != 0) {
+            predicates.add(values.in(m.team.id, "teamIds")); // member.team_id 컬럼만 비교
+        }
+        if ((shape & AGE_GOE) != 0) {
+            predicates.add(m.age.goe(values.number("ageGoe")));
+        }
+        if ((shape & AGE_LOE) != 0) {
+            predicates.add(m.age.loe(values.number("ageLoe")));
+        }
+        return ExpressionUtils.allOf(predicates);
+    }
+
+    /**
+     * 조건의 값 자리 (실제 값 또는 이름 있는 파라미터)
+     */
+    private interface Values {
+        Expression<String> string(String name);
+
+        Expression<Integer> number(String name);
+
+        BooleanExpression in(NumberPath<Long> path, String name);
+    }
+
+    public static class ResolvedIds {
+        private final List<Long> teamIds;
+        private final List<Long> usernameIds;
+
+        ResolvedIds(List<Long> teamIds, List<Long> usernameIds) {
+            this.teamIds = teamIds;
+            this.usernameIds = usernameIds;
+        }
+    }
+}
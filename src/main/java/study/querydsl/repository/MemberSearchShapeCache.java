@@ -0,0 +1,208 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.JPQLTemplates;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.KeysetCursor;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.QMember;
+import study.querydsl.repository.MemberSearchPredicates.ResolvedIds;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 검색 조건 모양(shape)별 JPQL 캐시
+ * MemberSearchCondition 의 조건 6개가 채워졌는지 여부로 2^6 = 64가지 where 절만 나오므로 JPQL을 미리 만들어 두고
+ * 요청마다 파라미터만 바인딩한다. JPQL 문자열이 항상 같으므로 하이버네이트 쿼리 플랜 캐시도 그대로 재사용된다.
+ * where 절은 count / stream / 벌크 변경과 같은 MemberSearchPredicates 의 QueryDSL 조건을 JPQL 로 바꾼 것이다.
+ *
+ * search / 페이징 content (offset, limit 만 다름) : 64가지
+ * 키셋 slice : 정렬 2가지 x 첫 페이지 여부 2가지 x 64가지
+ * in 목록(teamIds, usernameIds)은 hibernate.query.in_clause_parameter_padding 으로 2의 거듭제곱 크기로 맞춰서
+ * 목록 크기마다 SQL 이 달라지지 않게 한다.
+ * usernameIds 는 member.username-index.max-candidates(기본 1000) 개까지라 패딩해도 바인딩 파라미터는 1024개 이하
+ */
+@Component
+public class MemberSearchShapeCache {
+
+    static final int USERNAME = 1;
+    static final int TEAM_NAME = 1 << 1;
+    static final int AGE_GOE = 1 << 2;
+    static final int AGE_LOE = 1 << 3;
+    static final int USERNAME_PREFIX = 1 << 4;
+    static final int USERNAME_IDS = 1 << 5; // usernameContains -> 트라이그램 인덱스에서 찾은 member id
+    static final int SHAPES = 1 << 6;
+
+    private static final QMember m = new QMember("m");
+    private static final String SELECT = "select new study.querydsl.dto.MemberTeamDto(m.id, m.username, m.age, t.id, t.name)"
+            + " from Member m left join m.team t";
+
+    private final String[] jpqlByShape = new String[SHAPES];
+    // [정렬][0: 첫 페이지, 1: 커서 이후][shape]
+    private final String[][][] sliceJpqlByShape = new String[KeysetCursor.Order.values().length][2][SHAPES];
+    private final Counter[] shapeCounters = new Counter[SHAPES];
+
+    public MemberSearchShapeCache(MeterRegistry meterRegistry) {
+        for (int shape = 0; shape < SHAPES; shape++) {
+            jpqlByShape[shape] = render(shape);
+            for (KeysetCursor.Order order : KeysetCursor.Order.values()) {
+                sliceJpqlByShape[order.ordinal()][0][shape] = renderSlice(shape, order, false);
+                sliceJpqlByShape[order.ordinal()][1][shape] = renderSlice(shape, order, true);
+            }
+            shapeCounters[shape] = meterRegistry.counter("member.search.shape", "shape", shapeName(shape));
+        }
+    }
+
+    public static int shapeOf(MemberSearchCondition condition) {
+        int shape = 0;
+        if (hasText(condition.getUsername())) {
+            shape |= USERNAME;
+        }
+        if (hasText(condition.getTeamName())) {
+            shape |= TEAM_NAME;
+        }
+        if (condition.getAgeGoe() != null) {
+            shape |= AGE_GOE;
+        }
+        if (condition.getAgeLoe() != null) {
+            shape |= AGE_LOE;
+        }
+        if (hasText(condition.getUsernameStartsWith())) {
+            shape |= USERNAME_PREFIX;
+        }
+        if (hasText(condition.getUsernameContains())) {
+            shape |= USERNAME_IDS;
+        }
+        return shape;
+    }
+
+    /**
+     * 앞부분 일치를 인덱스 범위 조건(prefix <= username < prefixEnd)으로 바꾸기 위한 상한 = 마지막 글자를 하나 올린 값
+     * like 'prefix%' 와 달리 DB 가 항상 인덱스 범위 스캔으로 처리할 수 있다.
+     */
+    public static String prefixEnd(String prefix) {
+        int last = prefix.length() - 1;
+        char c = prefix.charAt(last);
+        if (c == Character.MAX_VALUE) {
+            return prefix + Character.MAX_VALUE; // 올릴 수 없는 문자는 실제로 쓰이지 않으므로 근사
+        }
+        return prefix.substring(0, last) + (char) (c + 1);
+    }
+
+    /**
+     * search 용 (페이징은 반환된 쿼리에 setFirstResult / setMaxResults)
+     * @param ids MemberSearchPredicates.resolve 결과 (null 이 아니어야 함)
+     */
+    public TypedQuery<MemberTeamDto> createQuery(EntityManager em, MemberSearchCondition condition, ResolvedIds ids) {
+        int shape = shapeOf(condition);
+        shapeCounters[shape].increment();
+
+        TypedQuery<MemberTeamDto> query = em.createQuery(jpqlByShape[shape], MemberTeamDto.class);
+        MemberSearchPredicates.parameters(condition, ids).forEach(query::setParameter);
+        return query;
+    }
+
+    /**
+     * 키셋 slice 용, 다음 페이지 확인을 위해 cursor.size + 1 개까지 가져온다.
+     */
+    public TypedQuery<MemberTeamDto> createSliceQuery(EntityManager em, MemberSearchCondition condition,
+                                                      ResolvedIds ids, KeysetCursor cursor) {
+        int shape = shapeOf(condition);
+        shapeCounters[shape].increment();
+
+        boolean after = !cursor.isFirst();
+        TypedQuery<MemberTeamDto> query = em.createQuery(sliceJpql(shape, cursor.getOrder(), after), MemberTeamDto.class);
+        MemberSearchPredicates.parameters(condition, ids).forEach(query::setParameter);
+        if (after) {
+            query.setParameter("lastId", cursor.getLastMemberId());
+            if (cursor.getOrder() == KeysetCursor.Order.AGE_ID) {
+                query.setParameter("lastAge", cursor.getLastAge());
+            }
+        }
+        return query.setMaxResults(cursor.getSize() + 1);
+    }
+
+    /**
+     * 모든 모양의 JPQL 을 미리 파싱해서 하이버네이트 쿼리 플랜 캐시에 올림 (시작 후 워밍업용, 실행은 하지 않음)
+     */
+    public void warmUp(EntityManager em) {
+        for (String jpql : jpqlByShape) {
+            em.createQuery(jpql, MemberTeamDto.class);
+        }
+        for (String[][] byOrder : sliceJpqlByShape) {
+            for (String[] byPosition : byOrder) {
+                for (String jpql : byPosition) {
+                    em.createQuery(jpql, MemberTeamDto.class);
+                }
+            }
+        }
+    }
+
+    String jpql(int shape) {
+        return jpqlByShape[shape];
+    }
+
+    String sliceJpql(int shape, KeysetCursor.Order order, boolean after) {
+        return sliceJpqlByShape[order.ordinal()][after ? 1 : 0][shape];
+    }
+
+    private static String render(int shape) {
+        return SELECT + where(shape, new ArrayList<>());
+    }
+
+    private static String renderSlice(int shape, KeysetCursor.Order order, boolean after) {
+        List<String> seek = new ArrayList<>();
+        if (after) {
+            seek.add(order == KeysetCursor.Order.AGE_ID
+                    ? "(m.age > :lastAge or (m.age = :lastAge and m.id > :lastId))"
+                    : "m.id > :lastId");
+        }
+        return SELECT + where(shape, seek)
+                + (order == KeysetCursor.Order.AGE_ID ? " order by m.age asc, m.id asc" : " order by m.id asc");
+    }
+
+    private static String where(int shape, List<String> extra) {
+        List<String> predicates = new ArrayList<>();
+        Predicate where = MemberSearchPredicates.where(m, shape);
+        if (where != null) {
+            predicates.add(new JPQLSerializer(JPQLTemplates.DEFAULT).handle(where).toString());
+        }
+        predicates.addAll(extra);
+        return predicates.isEmpty() ? "" : " where " + String.join(" and ", predicates);
+    }
+
+    private static String shapeName(int shape) {
+        if (shape == 0) {
+            return "none";
+        }
+        StringBuilder name = new StringBuilder();
+        if ((shape & USERNAME) != 0) {
+            name.append("username+");
+        }
+        if ((shape & USERNAME_PREFIX) != 0) {
+            name.append("usernameStartsWith+");
+        }
+        if ((shape & USERNAME_IDS) != 0) {
+            name.append("usernameContains+");
+        }
+        if ((shape & TEAM_NAME) != 0) {
+            name.append("teamName+");
+        }
+        if ((shape & AGE_GOE) != 0) {
+            name.append("ageGoe+");
+        }
+        if ((shape & AGE_LOE) != 0) {
+            name.append("ageLoe+");
+        }
+        return name.substring(0, name.length() - 1);
+    }
+}
@@ -0,0 +1,117 @@
+package study.querydsl.repository;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Member, Team 변경이 커밋되면 MemberWriteTracker 버전을 올리는 하이버네이트 리스너
+ * Member 의 username 은 UsernameTrigramIndex 에도 반영, 컬럼 스냅샷(MemberColumnarStore)을 쓰면 거기에도 반영
+ * 벌크 연산(update/delete 쿼리)은 이벤트가 발생하지 않으므로 호출하는 쪽에서 직접 markBulkWritten() 해야 한다.
+ * 지연 초기화(spring.main.lazy-initialization)에서도 첫 저장 전에 등록되어 있어야 하므로 항상 즉시 생성
+ */
+@Lazy(false)
+@Component
+public class MemberWriteListener implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory emf;
+    private final MemberWriteTracker writeTracker;
+    private final UsernameTrigramIndex usernameIndex;
+    private final ObjectProvider<MemberColumnarStore> columnarStore;
+
+    public MemberWriteListener(EntityManagerFactory emf, MemberWriteTracker writeTracker, UsernameTrigramIndex usernameIndex,
+                               ObjectProvider<MemberColumnarStore> columnarStore) {
+        this.emf = emf;
+        this.writeTracker = writeTracker;
+        this.usernameIndex = usernameIndex;
+        this.columnarStore = columnarStore;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        onSaved(event.getEntity());
+        onWrite(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        onSaved(event.getEntity());
+        onWrite(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            Long memberId = ((Member) event.getEntity()).getId();
+            usernameIndex.onDeleted(memberId);
+            columnarStore.ifAvailable(store -> store.onMemberDeleted(memberId));
+        }
+        onWrite(event.getEntity());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return true;
+    }
+
+    private void onSaved(Object entity) {
+        if (entity instanceof Member) {
+            Member member = (Member) entity;
+            usernameIndex.onSaved(member.getId(), member.getUsername());
+            columnarStore.ifAvailable(store -> store.onMemberSaved(member.getId(), member.getUsername(), member.getAge(), teamIdOf(member)));
+        } else if (entity instanceof Team) {
+            Team team = (Team) entity;
+            columnarStore.ifAvailable(store -> store.onTeamSaved(team.getId(), team.getName()));
+        }
+    }
+
+    /**
+     * 지연 로딩 프록시면 초기화하지 않고 id 만 꺼냄
+     */
+    private static Long teamIdOf(Member member) {
+        Team team = member.getTeam();
+        if (team instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) team).getHibernateLazyInitializer().getIdentifier();
+        }
+        return team == null ? null : team.getId();
+    }
+
+    private void onWrite(Object entity) {
+        if (entity instanceof Member || entity instanceof Team) {
+            writeTracker.markWritten();
+        }
+    }
+}
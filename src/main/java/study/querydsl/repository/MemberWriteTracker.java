@@ -0,0 +1,44 @@
+package study.querydsl.repository;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 회원/팀 데이터의 쓰기 버전
+ * 변경이 커밋될 때마다 증가하며, 조회 결과 캐시들은 이 버전이 바뀌면 무효로 본다.
+ * 엔티티 이벤트 없이 바뀐 경우(벌크 쿼리, JDBC 직접 insert)는 markBulkWritten() -
+ * 변경 내용을 이벤트로 따라가는 인메모리 인덱스들은 onBulkWrite 로 등록해서 다시 만든다.
+ * 버전만 비교해서는 메모리가 안 비는 캐시들은 onWrite 로 등록해서 바로 비운다.
+ */
+@Component
+public class MemberWriteTracker {
+
+    private final AtomicLong version = new AtomicLong();
+    private final List<Runnable> writeListeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> bulkWriteListeners = new CopyOnWriteArrayList<>();
+
+    public long currentVersion() {
+        return version.get();
+    }
+
+    public void markWritten() {
+        version.incrementAndGet();
+        writeListeners.forEach(Runnable::run);
+    }
+
+    public void markBulkWritten() {
+        markWritten();
+        bulkWriteListeners.forEach(Runnable::run);
+    }
+
+    public void onWrite(Runnable listener) {
+        writeListeners.add(listener);
+    }
+
+    public void onBulkWrite(Runnable listener) {
+        bulkWriteListeners.add(listener);
+    }
+}
@@ -0,0 +1,142 @@
+package study.querydsl.repository;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * DB 에서 읽어서 만드는 인메모리 스냅샷(UsernameTrigramIndex, MemberColumnarStore)의 로딩/교체
+ *
+ * - 처음 읽을 때, 그리고 invalidate(벌크 변경) 후 처음 읽을 때 그 호출 스레드가 락 없이 새 스냅샷을 만들고 끝나면 교체한다.
+ *   그동안 다른 읽기는 이전 스냅샷을 그대로 쓰고, 이전 스냅샷이 없을 때(처음)만 로딩이 끝나기를 기다린다.
+ * - 커밋 후 변경(apply)은 지금 스냅샷에 바로 반영하고, 만들기 전/만드는 중/다시 만들어야 할 때는 모아 뒀다가
+ *   새 스냅샷에 순서대로 다시 반영한다. (로딩 SELECT 이후 커밋, 복제본 지연으로 SELECT 에 안 보인 변경)
+ * - 읽기는 읽기 락, 변경 반영과 교체는 쓰기 락. 교체된 이전 스냅샷은 더 이상 바뀌지 않는다.
+ */
+class RefreshableSnapshot<T> {
+
+    static final int MAX_PENDING = 100_000; // 넘으면 오래된 변경부터 버림 (그만큼 지난 커밋은 SELECT 에 보임)
+
+    private final Supplier<T> loader;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Deque<Consumer<T>> pending = new ArrayDeque<>(); // this 로 동기화
+
+    private volatile T current;     // 읽기에 쓰는 스냅샷, 아직 없으면 null
+    private volatile boolean stale = true;
+    private CompletableFuture<T> building; // 만드는 중이면 그 결과, this 로 동기화
+
+    /**
+     * @param loader 새 스냅샷을 DB 에서 읽어서 만든다. 락 없이 호출 스레드(트랜잭션)에서 실행
+     */
+    RefreshableSnapshot(Supplier<T> loader) {
+        this.loader = loader;
+    }
+
+    <R> R read(Function<T, R> reader) {
+        T snapshot = acquire();
+        lock.readLock().lock();
+        try {
+            return reader.apply(snapshot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 커밋된 변경 반영
+     */
+    void apply(Consumer<T> event) {
+        lock.writeLock().lock();
+        try {
+            T snapshot = current;
+            if (snapshot != null) {
+                event.accept(snapshot);
+            }
+            synchronized (this) {
+                if (stale || building != null || snapshot == null) {
+                    if (pending.size() == MAX_PENDING) {
+                        pending.pollFirst();
+                    }
+                    pending.addLast(event);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 다음 읽기 때 다시 만든다. (그때까지, 그리고 만드는 동안 다른 읽기는 지금 스냅샷 사용)
+     */
+    void invalidate() {
+        stale = true;
+    }
+
+    private T acquire() {
+        T snapshot = current;
+        if (!stale && snapshot != null) {
+            return snapshot;
+        }
+        CompletableFuture<T> mine;
+        CompletableFuture<T> other;
+        synchronized (this) {
+            snapshot = current;
+            if (!stale && snapshot != null) {
+                return snapshot;
+            }
+            if (building != null && snapshot != null) {
+                return snapshot; // 다른 스레드가 만드는 중이면 이전 스냅샷
+            }
+            other = building;
+            mine = other == null ? new CompletableFuture<>() : null;
+            if (mine != null) {
+                stale = false; // 만드는 도중의 invalidate 는 다시 stale 로 남김
+                building = mine;
+            }
+        }
+        if (other != null) {
+            return await(other); // 처음 로딩이면 끝나기를 기다림 (락, 모니터 없이)
+        }
+
+        try {
+            T fresh = loader.get();
+            lock.writeLock().lock();
+            try {
+                synchronized (this) {
+                    pending.forEach(event -> event.accept(fresh));
+                    pending.clear();
+                    current = fresh;
+                    building = null;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            mine.complete(fresh);
+            return fresh;
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                stale = true;
+                building = null;
+            }
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
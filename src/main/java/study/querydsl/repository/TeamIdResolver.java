@@ -0,0 +1,37 @@
+package study.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.annotations.QueryHints;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 팀 이름 -> 팀 id 변환
+ * 하이버네이트 쿼리 캐시를 사용하므로 Team 테이블이 바뀌기 전까지는 DB를 조회하지 않는다.
+ * 이름이 유일하지 않을 수 있어서 id 목록으로 반환
+ */
+@Component
+public class TeamIdResolver {
+
+    public static final String REGION = "teamIdByName";
+
+    private final JPAQueryFactory queryFactory;
+
+    public TeamIdResolver(EntityManager em) {
+        this.queryFactory = new JPAQueryFactory(em);
+    }
+
+    public List<Long> findIdsByName(String teamName) {
+        return queryFactory
+                .select(team.id)
+                .from(team)
+                .where(team.name.eq(teamName))
+                .setHint(QueryHints.CACHEABLE, true)
+                .setHint(QueryHints.CACHE_REGION, REGION)
+                .fetch();
+    }
+}
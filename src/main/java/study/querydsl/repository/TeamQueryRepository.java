@@ -0,0 +1,100 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.TeamWithMembersDto;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@Repository
+public class TeamQueryRepository {
+
+    /**
+     * 팀별 member_id 순 앞쪽 회원만 (ROW_NUMBER 윈도 함수 - JPQL 에는 없어서 네이티브 쿼리, MySQL 8 / H2 지원)
+     */
+    private static final String MEMBERS_PER_TEAM_SQL =
+            "select team_id, username, age from ("
+                    + " select m.team_id, m.username, m.age,"
+                    + " row_number() over (partition by m.team_id order by m.member_id) as rn"
+                    + " from member m where m.team_id in (:teamIds)"
+                    + ") t where t.rn <= :limit order by t.team_id, t.rn";
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+    private final int maxMembersPerTeam;
+
+    public TeamQueryRepository(EntityManager em,
+                               @Value("${member.team.max-members-per-team:100}") int maxMembersPerTeam) {
+        this.em = em;
+        this.queryFactory = new JPAQueryFactory(em);
+        this.maxMembersPerTeam = maxMembersPerTeam;
+    }
+
+    /**
+     * 팀 + 소속 회원 목록
+     * 1. 팀 기준으로 페이징 (조인된 row 기준이 아님)
+     * 2. 해당 팀들의 회원을 팀당 최대 maxMembersPerTeam 명까지 한 번에 가져와서 팀별 DTO로 묶음
+     *    (엔티티, Team.members 컬렉션 로딩 없음, 큰 팀이 있어도 응답 크기는 페이지 크기 x maxMembersPerTeam 이하)
+     * 3. 팀별 전체 회원 수는 group by 한 번 (team_id 인덱스)
+     */
+    public Page<TeamWithMembersDto> findTeamsWithMembers(Pageable pageable) {
+        List<Tuple> teams = queryFactory
+                .select(team.id, team.name)
+                .from(team)
+                .orderBy(team.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        List<Long> teamIds = teams.stream().map(t -> t.get(team.id)).collect(Collectors.toList());
+        Map<Long, List<MemberDto>> members = new HashMap<>();
+        Map<Long, Long> memberCounts = new HashMap<>();
+        if (!teamIds.isEmpty()) {
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = em.createNativeQuery(MEMBERS_PER_TEAM_SQL)
+                    .setParameter("teamIds", teamIds)
+                    .setParameter("limit", maxMembersPerTeam)
+                    .getResultList();
+            for (Object[] row : rows) {
+                members.computeIfAbsent(((Number) row[0]).longValue(), id -> new ArrayList<>())
+                        .add(new MemberDto((String) row[1], ((Number) row[2]).intValue()));
+            }
+
+            for (Tuple t : queryFactory
+                    .select(member.team.id, member.count())
+                    .from(member)
+                    .where(member.team.id.in(teamIds))
+                    .groupBy(member.team.id)
+                    .fetch()) {
+                memberCounts.put(t.get(member.team.id), t.get(member.count()));
+            }
+        }
+
+        // 회원이 없는 팀은 결과에 없으므로 빈 목록으로 채움
+        List<TeamWithMembersDto> content = new ArrayList<>(teams.size());
+        for (Tuple t : teams) {
+            Long teamId = t.get(team.id);
+            content.add(new TeamWithMembersDto(teamId, t.get(team.name), members.get(teamId), memberCounts.getOrDefault(teamId, 0L)));
+        }
+
+        JPAQuery<Long> countQuery = queryFactory
+                .select(team.count())
+                .from(team);
+        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+    }
+}
@@ -0,0 +1,214 @@
+package study.querydsl.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * username 부분 문자열 검색용 트라이그램(연속 3글자) 인덱스 - 프로세스 메모리
+ * 소문자로 바꾼 username 의 3글자 조각마다 회원 순번 목록을 두고,
+ * 검색어 조각 중 목록이 가장 짧은 것의 후보만 실제 username 과 비교해서 member id 를 돌려준다.
+ * (검색어가 3글자보다 짧으면 전체 username 과 비교)
+ *
+ * - 처음 검색할 때 DB 에서 (member_id, username) 을 읽어서 만든다.
+ * - 이후 회원 저장/변경/삭제는 MemberWriteListener 가 커밋 후 반영한다.
+ * - 벌크 쿼리, JDBC 로 직접 넣은 경우(MemberWriteTracker.markBulkWritten)는 다음 검색 때 다시 만든다.
+ *   로딩은 락 밖에서 하고 끝나면 교체하므로 그동안 다른 검색은 이전 인덱스를 쓴다. (RefreshableSnapshot)
+ * - 이름이 바뀌거나 삭제된 회원의 예전 조각은 목록에 남아서 현재 username 과 비교해 걸러지고,
+ *   그런 순번이 전체의 1/4 을 넘으면 살아 있는 회원만으로 목록을 다시 만든다.
+ */
+@Component
+public class UsernameTrigramIndex {
+
+    static final int GRAM = 3;
+    static final int COMPACT_MIN_STALE = 1024;
+
+    private final int maxCandidates;
+    private final RefreshableSnapshot<Postings> snapshot;
+
+    public UsernameTrigramIndex(JdbcTemplate jdbcTemplate,
+                                MemberWriteTracker writeTracker,
+                                @Value("${member.username-index.max-candidates:1000}") int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+        this.snapshot = new RefreshableSnapshot<>(() -> {
+            Postings postings = new Postings();
+            jdbcTemplate.query("select member_id, username from member",
+                    (RowCallbackHandler) rs -> postings.put(rs.getLong(1), rs.getString(2)));
+            postings.compactIfStale();
+            return postings;
+        });
+        writeTracker.onBulkWrite(this::invalidate);
+    }
+
+    /**
+     * @return username 에 term 이 (대소문자 구분 없이) 들어 있는 member id
+     * @throws IllegalArgumentException 결과가 maxCandidates 보다 많을 때 (검색어를 더 구체적으로)
+     */
+    public List<Long> findIds(String term) {
+        String needle = term.toLowerCase(Locale.ROOT);
+        return snapshot.read(postings -> postings.find(needle, term, maxCandidates));
+    }
+
+    public void onSaved(Long memberId, String username) {
+        snapshot.apply(postings -> {
+            postings.put(memberId, username);
+            postings.compactIfStale();
+        });
+    }
+
+    public void onDeleted(Long memberId) {
+        snapshot.apply(postings -> {
+            postings.remove(memberId);
+            postings.compactIfStale();
+        });
+    }
+
+    /**
+     * 다음 검색 때 DB 에서 다시 만든다.
+     */
+    public void invalidate() {
+        snapshot.invalidate();
+    }
+
+    /**
+     * 삭제된 회원을 빼고 순번을 다시 매겨서 목록을 새로 만든다. (예전 조각 제거)
+     */
+    void compact() {
+        snapshot.apply(Postings::compact);
+    }
+
+    /**
+     * 조각 목록에 들어 있는 순번 수 (테스트용)
+     */
+    int postingSize(String gram) {
+        return snapshot.read(postings -> {
+            IntList posting = postings.postings.get(gram);
+            return posting == null ? 0 : posting.size;
+        });
+    }
+
+    private static class Postings {
+        final Map<String, IntList> postings = new HashMap<>();
+        final Map<Long, Integer> ordinals = new HashMap<>();
+        long[] ids = new long[1024];
+        String[] usernames = new String[1024]; // 소문자, 삭제된 회원은 null
+        int size;
+        int stale; // 목록에 예전 조각이 남아 있는 순번 수 (이름 변경, 삭제)
+
+        List<Long> find(String needle, String term, int maxCandidates) {
+            IntList candidates = null;
+            if (needle.length() >= GRAM) {
+                for (int i = 0; i + GRAM <= needle.length(); i++) {
+                    IntList posting = postings.get(needle.substring(i, i + GRAM));
+                    if (posting == null) {
+                        return new ArrayList<>(); // 없는 조각이 있으면 결과 없음
+                    }
+                    if (candidates == null || posting.size < candidates.size) {
+                        candidates = posting;
+                    }
+                }
+            }
+
+            List<Long> result = new ArrayList<>();
+            BitSet seen = new BitSet(size);
+            int count = candidates == null ? size : candidates.size;
+            for (int i = 0; i < count; i++) {
+                int ordinal = candidates == null ? i : candidates.values[i];
+                if (seen.get(ordinal)) {
+                    continue;
+                }
+                seen.set(ordinal);
+                String username = usernames[ordinal];
+                if (username != null && username.contains(needle)) {
+                    result.add(ids[ordinal]);
+                    if (result.size() > maxCandidates) {
+                        throw new IllegalArgumentException("usernameContains '" + term + "' matches more than " + maxCandidates + " members");
+                    }
+                }
+            }
+            return result;
+        }
+
+        void put(Long memberId, String username) {
+            String lower = username == null ? null : username.toLowerCase(Locale.ROOT);
+            Integer ordinal = ordinals.get(memberId);
+            if (ordinal == null) {
+                ordinal = size++;
+                if (ordinal == ids.length) {
+                    ids = Arrays.copyOf(ids, ordinal * 2);
+                    usernames = Arrays.copyOf(usernames, ordinal * 2);
+                }
+                ids[ordinal] = memberId;
+                ordinals.put(memberId, ordinal);
+            } else if (Objects.equals(usernames[ordinal], lower)) {
+                return;
+            } else if (usernames[ordinal] != null) {
+                stale++;
+            }
+            usernames[ordinal] = lower;
+            index(ordinal, lower);
+        }
+
+        void remove(Long memberId) {
+            Integer ordinal = ordinals.get(memberId);
+            if (ordinal != null && usernames[ordinal] != null) {
+                usernames[ordinal] = null;
+                stale++;
+            }
+        }
+
+        void compactIfStale() {
+            if (stale >= Math.max(COMPACT_MIN_STALE, size / 4)) {
+                compact();
+            }
+        }
+
+        void compact() {
+            postings.clear();
+            ordinals.clear();
+            int live = 0;
+            for (int i = 0; i < size; i++) {
+                if (usernames[i] != null) {
+                    ids[live] = ids[i];
+                    usernames[live] = usernames[i];
+                    ordinals.put(ids[live], live);
+                    index(live, usernames[live]);
+                    live++;
+                }
+            }
+            Arrays.fill(usernames, live, size, null);
+            size = live;
+            stale = 0;
+        }
+
+        private void index(int ordinal, String lower) {
+            if (lower == null) {
+                return;
+            }
+            for (int i = 0; i + GRAM <= lower.length(); i++) {
+                postings.computeIfAbsent(lower.substring(i, i + GRAM), gram -> new IntList()).add(ordinal);
+            }
+        }
+    }
+
+    private static class IntList {
+        int[] values = new int[4];
+        int size;
+
+        /**
+         * 같은 이름에 같은 조각이 여러 번 나와도 한 번만
+         */
+        void add(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package study.querydsl.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import study.querydsl.dto.MemberBulkImportResult;
+import study.querydsl.dto.MemberImportRow;
+import study.querydsl.dto.MemberInsertDto;
+import study.querydsl.repository.TeamIdResolver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 회원 대량 가져오기
+ * 요청 본문을 한 줄씩 읽어서 chunk-size 만큼 모이면 저장한다. chunk 마다 별도 트랜잭션이므로
+ * 중간에 실패해도 앞서 저장된 chunk는 유지된다.
+ */
+@Service
+public class MemberBulkImportService {
+
+    private final MemberIngestionService ingestionService;
+    private final TeamIdResolver teamIdResolver;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public MemberBulkImportService(MemberIngestionService ingestionService,
+                                   TeamIdResolver teamIdResolver,
+                                   ObjectMapper objectMapper,
+                                   @Value("${member.import.chunk-size:1000}") int chunkSize) {
+        this.ingestionService = ingestionService;
+        this.teamIdResolver = teamIdResolver;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public MemberBulkImportResult importMembers(InputStream in, MemberFileFormat format) throws IOException {
+        MemberBulkImportResult result = new MemberBulkImportResult();
+        Map<String, Optional<Long>> teamIds = new HashMap<>(); // 이번 가져오기 동안만 쓰는 팀 이름 -> id
+        List<MemberInsertDto> chunk = new ArrayList<>(chunkSize);
+        long start = System.nanoTime();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty() || (format == MemberFileFormat.CSV && lineNumber == 1 && line.startsWith("username"))) {
+                continue; // 빈 줄, CSV 헤더
+            }
+            result.setTotalRows(result.getTotalRows() + 1);
+
+            MemberImportRow row;
+            try {
+                row = format == MemberFileFormat.CSV ? parseCsv(line) : objectMapper.readValue(line, MemberImportRow.class);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                result.reject(lineNumber, "형식 오류");
+                continue;
+            }
+
+            String error = validate(row);
+            if (error != null) {
+                result.reject(lineNumber, error);
+                continue;
+            }
+
+            Long teamId = null;
+            if (hasText(row.getTeamName())) {
+                Optional<Long> found = teamIds.computeIfAbsent(row.getTeamName(),
+                        name -> teamIdResolver.findIdsByName(name).stream().findFirst());
+                if (!found.isPresent()) {
+                    result.reject(lineNumber, "존재하지 않는 팀: " + row.getTeamName());
+                    continue;
+                }
+                teamId = found.get();
+            }
+
+            chunk.add(new MemberInsertDto(row.getUsername(), row.getAge(), teamId));
+            if (chunk.size() == chunkSize) {
+                writeChunk(chunk, result);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, result);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        result.setElapsedMillis(elapsedNanos / 1_000_000);
+        result.setRowsPerSecond(elapsedNanos == 0 ? 0 : result.getInsertedRows() * 1_000_000_000.0 / elapsedNanos);
+        return result;
+    }
+
+    private void writeChunk(List<MemberInsertDto> chunk, MemberBulkImportResult result) {
+        long chunkStart = System.nanoTime();
+        int inserted = ingestionService.insert(chunk); // chunk 하나가 트랜잭션 하나
+        long millis = (System.nanoTime() - chunkStart) / 1_000_000;
+
+        result.setInsertedRows(result.getInsertedRows() + inserted);
+        result.getChunks().add(new MemberBulkImportResult.ChunkTiming(result.getChunks().size(), inserted, millis));
+        chunk.clear();
+    }
+
+    private String validate(MemberImportRow row) {
+        if (row == null) {
+            return "형식 오류";
+        }
+        if (!hasText(row.getUsername())) {
+            return "username 없음";
+        }
+        if (row.getAge() == null || row.getAge() < 0) {
+            return "age 오류";
+        }
+        return null;
+    }
+
+    /**
+     * username,age,teamName (큰따옴표로 감싼 값 지원)
+     */
+    MemberImportRow parseCsv(String line) {
+        List<String> values = new ArrayList<>(3);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+
+        if (values.size() < 2 || values.size() > 3) {
+            throw new IllegalArgumentException("컬럼 수 오류");
+        }
+        Integer age = Integer.valueOf(values.get(1).trim()); // NumberFormatException -> 형식 오류
+        String teamName = values.size() == 3 && hasText(values.get(2)) ? values.get(2) : null;
+        return new MemberImportRow(values.get(0), age, teamName);
+    }
+}
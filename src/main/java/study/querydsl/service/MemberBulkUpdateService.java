@@ -0,0 +1,235 @@
+package study.querydsl.service;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberBulkResult;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberSearchPredicates;
+import study.querydsl.repository.MemberSearchPredicates.ResolvedIds;
+import study.querydsl.repository.MemberWriteTracker;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * 검색 조건으로 회원 대량 변경 (나이 조정, 팀 변경, 삭제)
+ * update/delete 쿼리 한 번으로 전체를 바꾸면 대상 row 전체에 락이 오래 잡히므로
+ * member_id 구간(chunkSize)으로 나눠서 구간마다 별도 트랜잭션으로 실행하고 구간 사이에 pause 만큼 쉰다.
+ * 구간은 다음 대상 id(select min(id) ... where id >= 이전 구간 끝)에서 시작하므로 id 가 듬성듬성해도 빈 구간은 실행하지 않는다.
+ *
+ * 벌크 연산은 영속성 컨텍스트를 거치지 않으므로
+ * - 구간 트랜잭션은 끝나면 바로 닫히고 (REQUIRES_NEW)
+ * - 호출한 쪽 트랜잭션에 남아 있는 Member 중 구간에서 바뀐 회원만 영속성 컨텍스트에서 분리(evict)한다.
+ *   다시 조회하면 DB 값을 읽는다.
+ * - 호출한 쪽 영속성 컨텍스트에 flush 안 된 변경이 있으면 IllegalStateException
+ *   (분리하면 변경이 사라지고, flush 하면 바깥 트랜잭션이 잡은 row 락을 구간 트랜잭션이 기다리게 됨)
+ * - 바뀐 row 가 있는 구간마다 MemberWriteTracker.markBulkWritten() (count 캐시, 인메모리 인덱스 무효화)
+ * - 결과의 구간별 시간은 처음 MAX_CHUNK_TIMINGS 개만, 전체는 chunkCount / maxChunkMillis 로 요약
+ */
+@Slf4j
+@Service
+public class MemberBulkUpdateService {
+
+    static final int MAX_CHUNK_TIMINGS = 100;
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate chunkTx;
+    private final MemberSearchPredicates predicates;
+    private final MemberWriteTracker writeTracker;
+    private final long chunkSize;
+    private final Duration pause;
+
+    public MemberBulkUpdateService(EntityManager em,
+                                   PlatformTransactionManager transactionManager,
+                                   MemberSearchPredicates predicates,
+                                   MemberWriteTracker writeTracker,
+                                   @Value("${member.bulk.chunk-size:1000}") long chunkSize,
+                                   @Value("${member.bulk.pause:0ms}") Duration pause) {
+        this.em = em;
+        this.queryFactory = new JPAQueryFactory(em);
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.predicates = predicates;
+        this.writeTracker = writeTracker;
+        this.chunkSize = Math.max(chunkSize, 1);
+        this.pause = pause;
+    }
+
+    public MemberBulkResult adjustAge(MemberSearchCondition condition, int delta) {
+        return execute("adjustAge", condition, range -> queryFactory
+                .update(member)
+                .set(member.age, member.age.add(delta))
+                .where(range)
+                .execute());
+    }
+
+    /**
+     * @param teamId null 이면 팀 없음으로 변경
+     */
+    public MemberBulkResult reassignTeam(MemberSearchCondition condition, Long teamId) {
+        return execute("reassignTeam", condition, range -> {
+            Team team = teamId == null ? null : em.getReference(Team.class, teamId);
+            return queryFactory
+                    .update(member)
+                    .set(member.team, team)
+                    .where(range)
+                    .execute();
+        });
+    }
+
+    public MemberBulkResult delete(MemberSearchCondition condition) {
+        return execute("delete", condition, range -> queryFactory
+                .delete(member)
+                .where(range)
+                .execute());
+    }
+
+    private MemberBulkResult execute(String operation, MemberSearchCondition condition, Function<Predicate, Long> chunk) {
+        Session session = callerSession();
+        if (session != null && session.isDirty()) {
+            throw new IllegalStateException("bulk " + operation + " requires no pending changes in the current transaction (commit them first)");
+        }
+        MemberBulkResult result = new MemberBulkResult(operation);
+        long start = System.nanoTime();
+
+        // 검색 API 와 같은 조건 (팀 이름, usernameContains 는 id 로 바꿔서 join 없이)
+        ResolvedIds ids = predicates.resolve(condition);
+        Predicate where = ids == null ? null : MemberSearchPredicates.where(condition, ids);
+        Tuple bounds = ids == null ? null : queryFactory
+                .select(member.id.min(), member.id.max())
+                .from(member)
+                .where(where)
+                .fetchOne();
+        Long maxId = bounds == null ? null : bounds.get(1, Long.class); // 실행 중에 추가된 회원은 대상에서 제외
+        Long from = bounds == null ? null : bounds.get(0, Long.class);
+
+        while (from != null) {
+            long to = from + chunkSize;
+            Predicate range = ExpressionUtils.allOf(where, member.id.goe(from), member.id.lt(to));
+
+            long chunkStart = System.nanoTime();
+            List<Long> managedIds = managedMemberIds(session, from, to);
+            List<Long> staleIds = new ArrayList<>();
+            Long rows = chunkTx.execute(status -> {
+                if (!managedIds.isEmpty()) { // 바뀌기 전 조건으로 대상 확인
+                    staleIds.addAll(queryFactory.select(member.id).from(member).where(range, member.id.in(managedIds)).fetch());
+                }
+                return chunk.apply(range);
+            });
+            evict(session, staleIds);
+
+            if (rows != null && rows > 0) {
+                writeTracker.markBulkWritten();
+                record(result, new MemberBulkResult.ChunkTiming(from, to, rows, (System.nanoTime() - chunkStart) / 1_000_000));
+            }
+            from = to > maxId ? null : nextId(where, to, maxId);
+            if (from != null) {
+                pause();
+            }
+        }
+
+        long elapsedMillis = Math.max((System.nanoTime() - start) / 1_000_000, 1);
+        result.setElapsedMillis(elapsedMillis);
+        result.setRowsPerSecond(result.getAffectedRows() * 1000.0 / elapsedMillis);
+        log.info("bulk {}: {} rows in {} chunks, {} ms", operation, result.getAffectedRows(), result.getChunkCount(), elapsedMillis);
+        return result;
+    }
+
+    /**
+     * @return [from, maxId] 에서 조건에 맞는 가장 작은 id, 없으면 null
+     */
+    private Long nextId(Predicate where, long from, long maxId) {
+        return queryFactory
+                .select(member.id.min())
+                .from(member)
+                .where(where, member.id.goe(from), member.id.loe(maxId))
+                .fetchOne();
+    }
+
+    private static void record(MemberBulkResult result, MemberBulkResult.ChunkTiming chunk) {
+        result.setAffectedRows(result.getAffectedRows() + chunk.getRows());
+        result.setChunkCount(result.getChunkCount() + 1);
+        result.setMaxChunkMillis(Math.max(result.getMaxChunkMillis(), chunk.getMillis()));
+        if (result.getChunks().size() < MAX_CHUNK_TIMINGS) {
+            result.getChunks().add(chunk);
+        }
+    }
+
+    /**
+     * @return 호출한 쪽 트랜잭션의 세션, 바깥 트랜잭션이 없으면 (남아 있는 영속성 컨텍스트도 없으므로) null
+     */
+    private Session callerSession() {
+        return TransactionSynchronizationManager.isActualTransactionActive() ? em.unwrap(Session.class) : null;
+    }
+
+    /**
+     * 호출한 쪽 영속성 컨텍스트에 있는 Member 중 id 가 [from, to) 인 것
+     */
+    private static List<Long> managedMemberIds(Session session, long from, long to) {
+        List<Long> ids = new ArrayList<>();
+        if (session == null) {
+            return ids;
+        }
+        for (Object key : session.getStatistics().getEntityKeys()) {
+            EntityKey entityKey = (EntityKey) key;
+            if (Member.class.getName().equals(entityKey.getEntityName())) {
+                Long id = (Long) entityKey.getIdentifier();
+                if (id >= from && id < to) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 구간에서 바뀐 회원은 DB 와 값이 다를 수 있으므로 분리
+     */
+    private static void evict(Session session, List<Long> memberIds) {
+        if (session == null) {
+            return;
+        }
+        PersistenceContext persistenceContext = ((SessionImplementor) session).getPersistenceContext();
+        EntityPersister persister = ((SessionImplementor) session).getFactory().getMetamodel().entityPersister(Member.class);
+        for (Long id : memberIds) {
+            Object entity = persistenceContext.getEntity(((SessionImplementor) session).generateEntityKey(id, persister));
+            if (entity != null) {
+                session.evict(entity);
+            }
+        }
+    }
+
+    private void pause() {
+        if (pause.isZero() || pause.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(pause.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("bulk operation interrupted", e);
+        }
+    }
+}
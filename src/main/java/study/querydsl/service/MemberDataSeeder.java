@@ -0,0 +1,193 @@
+package study.querydsl.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSeedResult;
+import study.querydsl.dto.MemberSeedSpec;
+import study.querydsl.repository.MemberWriteTracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+
+/**
+ * 대량 시드 데이터 생성 - 같은 설정(MemberSeedSpec)이면 항상 같은 데이터
+ * 엔티티/영속성 컨텍스트를 거치지 않고 JDBC 배치로 바로 insert 한다.
+ *
+ * - 팀: 이름 team0, team1 ...
+ * - 회원: batchSize 건씩 파티션으로 나누고, 파티션마다 자기 번호로 만든 난수로 이름/나이/팀을 정한다.
+ *   파티션은 threads 개의 스레드가 각자 커넥션/트랜잭션으로 insert (스레드 수가 달라도 데이터는 같음)
+ * - id 는 현재 시퀀스 값 다음부터 차례로 (빈 DB 면 1부터), 끝나면 시퀀스를 시드 데이터 id 뒤로 옮긴다.
+ *   하이버네이트가 이미 받아 둔 id 구간은 현재 시퀀스 값보다 작으므로 persist 로 만든 id 와 겹치지 않는다.
+ * - 회원이 이미 있으면 아무것도 하지 않는다.
+ */
+@Slf4j
+@Component
+public class MemberDataSeeder {
+
+    static final int ALLOCATION_SIZE = 50; // Member, Team 의 @SequenceGenerator allocationSize
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MemberWriteTracker writeTracker;
+
+    public MemberDataSeeder(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            MemberWriteTracker writeTracker) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.writeTracker = writeTracker;
+    }
+
+    /**
+     * 별도 스레드에서 seed 실행 (애플리케이션 시작을 기다리게 하지 않음)
+     */
+    public CompletableFuture<MemberSeedResult> seedInBackground(MemberSeedSpec spec) {
+        CompletableFuture<MemberSeedResult> result = CompletableFuture.supplyAsync(() -> seed(spec), runnable -> {
+            Thread thread = new Thread(runnable, "member-seed");
+            thread.setDaemon(true);
+            thread.start();
+        });
+        result.whenComplete((r, e) -> {
+            if (e != null) {
+                log.error("background seed failed", e);
+            }
+        });
+        return result;
+    }
+
+    public MemberSeedResult seed(MemberSeedSpec spec) {
+        MemberSeedResult result = new MemberSeedResult();
+        Long existing = jdbcTemplate.queryForObject("select count(*) from member", Long.class);
+        if (existing != null && existing > 0) {
+            log.info("seed skipped: {} members already exist", existing);
+            result.setSkipped(true);
+            return result;
+        }
+        long start = System.nanoTime();
+
+        long teamBase = nextValue("team_seq") - 1;
+        long memberBase = nextValue("member_seq") - 1;
+
+        List<Object[]> teamRows = new ArrayList<>(spec.getTeams());
+        for (int t = 0; t < spec.getTeams(); t++) {
+            teamRows.add(new Object[]{teamBase + t + 1, "team" + t});
+        }
+        transactionTemplate.execute(status -> jdbcTemplate.batchUpdate("insert into team (id, name) values (?, ?)", teamRows));
+
+        int batchSize = Math.max(spec.getBatchSize(), 1);
+        int partitions = (int) ((spec.getMembers() + (long) batchSize - 1) / batchSize);
+        int threads = Math.max(1, Math.min(spec.getThreads(), partitions));
+        double[] teamCdf = teamCdf(spec.getTeams(), spec.getTeamSkew());
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> new Thread(runnable, "member-seed-worker"));
+        try {
+            List<Future<?>> futures = new ArrayList<>(partitions);
+            for (int p = 0; p < partitions; p++) {
+                int partition = p;
+                futures.add(executor.submit(() -> insertPartition(spec, partition, batchSize, memberBase, teamBase, teamCdf)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("seed interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("seed failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        restartSequence("team_seq", teamBase + spec.getTeams());
+        restartSequence("member_seq", memberBase + spec.getMembers());
+        jdbcTemplate.execute("analyze"); // 통계 갱신
+        writeTracker.markBulkWritten(); // JDBC 로 넣어서 엔티티 이벤트가 없음
+
+        long elapsedMillis = Math.max((System.nanoTime() - start) / 1_000_000, 1);
+        result.setMembers(spec.getMembers());
+        result.setTeams(spec.getTeams());
+        result.setPartitions(partitions);
+        result.setThreads(threads);
+        result.setElapsedMillis(elapsedMillis);
+        result.setRowsPerSecond(spec.getMembers() * 1000.0 / elapsedMillis);
+        log.info("seeded {} members, {} teams in {} ms ({} rows/sec, {} threads)",
+                spec.getMembers(), spec.getTeams(), elapsedMillis, (long) result.getRowsPerSecond(), threads);
+        return result;
+    }
+
+    private void insertPartition(MemberSeedSpec spec, int partition, int batchSize,
+                                 long memberBase, long teamBase, double[] teamCdf) {
+        Random random = new Random(spec.getRandomSeed() * 1_000_003L + partition);
+        int from = partition * batchSize;
+        int to = (int) Math.min((long) from + batchSize, spec.getMembers());
+
+        List<Object[]> rows = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            Long teamId = teamCdf.length > 0 ? teamBase + pickTeam(teamCdf, random) + 1 : null;
+            rows.add(new Object[]{memberBase + i + 1, username(spec, i, random), age(spec, random), teamId});
+        }
+        transactionTemplate.execute(status ->
+                jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)", rows));
+    }
+
+    private String username(MemberSeedSpec spec, int index, Random random) {
+        if (spec.getNameDistribution() == MemberSeedSpec.NameDistribution.SEQUENTIAL) {
+            return "member" + index;
+        }
+        char[] name = new char[5 + random.nextInt(6)];
+        for (int c = 0; c < name.length; c++) {
+            name[c] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(name);
+    }
+
+    private int age(MemberSeedSpec spec, Random random) {
+        int min = spec.getAgeMin();
+        int max = Math.max(spec.getAgeMax(), min);
+        if (spec.getAgeDistribution() == MemberSeedSpec.AgeDistribution.NORMAL) {
+            double mean = (min + max) / 2.0;
+            double stddev = Math.max((max - min) / 6.0, 1);
+            long age = Math.round(mean + random.nextGaussian() * stddev);
+            return (int) Math.max(min, Math.min(max, age));
+        }
+        return min + random.nextInt(max - min + 1);
+    }
+
+    /**
+     * 팀 t 의 가중치 1 / (t + 1)^skew 의 누적 분포 (skew = 0 이면 균등)
+     */
+    static double[] teamCdf(int teams, double skew) {
+        double[] cdf = new double[teams];
+        double sum = 0;
+        for (int t = 0; t < teams; t++) {
+            sum += 1 / Math.pow(t + 1, skew);
+            cdf[t] = sum;
+        }
+        for (int t = 0; t < teams; t++) {
+            cdf[t] /= sum;
+        }
+        return cdf;
+    }
+
+    static int pickTeam(double[] cdf, Random random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+    }
+
+    private long nextValue(String sequence) {
+        return jdbcTemplate.queryForObject("select next value for " + sequence, Long.class);
+    }
+
+    /**
+     * pooled 옵티마이저는 시퀀스 값을 id 구간의 끝으로 쓰므로 allocationSize 만큼 더 띄운다.
+     */
+    private void restartSequence(String sequence, long lastId) {
+        jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (lastId + ALLOCATION_SIZE + 1));
+    }
+}
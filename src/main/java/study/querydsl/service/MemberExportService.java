@@ -0,0 +1,98 @@
+package study.querydsl.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 회원 검색 결과를 스트리밍으로 내보내기
+ * 결과 전체를 메모리에 올리지 않고 커서에서 읽은 순서대로 바로 출력 스트림에 쓴다.
+ */
+@Service
+public class MemberExportService {
+
+    private final MemberRepository memberRepository;
+    private final EntityManager em;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final int clearInterval;
+
+    public MemberExportService(MemberRepository memberRepository,
+                               EntityManager em,
+                               ObjectMapper objectMapper,
+                               @Value("${member.export.fetch-size:1000}") int fetchSize,
+                               @Value("${member.export.clear-interval:1000}") int clearInterval) {
+        this.memberRepository = memberRepository;
+        this.em = em;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.clearInterval = clearInterval;
+    }
+
+    /**
+     * StreamingResponseBody는 요청 스레드가 아닌 별도 스레드에서 실행되므로 여기서 트랜잭션을 새로 연다.
+     * @return 내보낸 row 수
+     */
+    @Transactional(readOnly = true)
+    public long export(MemberSearchCondition condition, MemberFileFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == MemberFileFormat.CSV) {
+            writer.write("memberId,username,age,teamId,teamName\n");
+        }
+
+        long rows = 0;
+        try (Stream<MemberTeamDto> stream = memberRepository.searchStream(condition, fetchSize)) {
+            Iterator<MemberTeamDto> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                MemberTeamDto dto = iterator.next();
+                if (format == MemberFileFormat.CSV) {
+                    writeCsv(writer, dto);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(dto));
+                    writer.write('\n');
+                }
+
+                // 주기적으로 내보내고 영속성 컨텍스트를 비워서 메모리 사용량을 일정하게 유지
+                if (++rows % clearInterval == 0) {
+                    writer.flush();
+                    em.clear();
+                }
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private void writeCsv(Writer writer, MemberTeamDto dto) throws IOException {
+        writer.write(String.valueOf(dto.getMemberId()));
+        writer.write(',');
+        writer.write(csv(dto.getUsername()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getAge()));
+        writer.write(',');
+        writer.write(dto.getTeamId() == null ? "" : String.valueOf(dto.getTeamId()));
+        writer.write(',');
+        writer.write(csv(dto.getTeamName()));
+        writer.write('\n');
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
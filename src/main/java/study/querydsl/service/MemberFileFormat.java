@@ -0,0 +1,32 @@
+package study.querydsl.service;
+
+/**
+ * 회원 내보내기/가져오기 파일 형식
+ */
+public enum MemberFileFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    MemberFileFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static MemberFileFormat fromContentType(String contentType) {
+        if (contentType != null && contentType.toLowerCase().startsWith(CSV.contentType)) {
+            return CSV;
+        }
+        return NDJSON;
+    }
+}
@@ -0,0 +1,54 @@
+package study.querydsl.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberInsertDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 대량 회원 저장
+ * pooled 시퀀스(allocationSize)로 id 조회를 줄이고, hibernate.jdbc.batch_size 단위로 flush/clear 해서
+ * insert는 JDBC 배치로 묶이고 영속성 컨텍스트는 일정 크기 이상 커지지 않는다.
+ */
+@Service
+public class MemberIngestionService {
+
+    private final EntityManager em;
+    private final int flushSize;
+
+    public MemberIngestionService(EntityManager em,
+                                  @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}") int batchSize) {
+        this.em = em;
+        this.flushSize = batchSize > 0 ? batchSize : 100; // 배치를 끈 경우에도 영속성 컨텍스트는 비워줌
+    }
+
+    /**
+     * @return 저장한 회원 수
+     */
+    @Transactional
+    public int insert(Iterable<MemberInsertDto> rows) {
+        Map<Long, Team> teams = new HashMap<>();
+        int count = 0;
+        for (MemberInsertDto row : rows) {
+            Team team = row.getTeamId() == null
+                    ? null
+                    : teams.computeIfAbsent(row.getTeamId(), id -> em.getReference(Team.class, id));
+            em.persist(new Member(row.getUsername(), row.getAge(), team));
+
+            if (++count % flushSize == 0) {
+                em.flush();
+                em.clear();
+                teams.clear(); // clear 후에는 준영속이 되므로 팀 참조도 다시 얻음
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
+}
@@ -0,0 +1,51 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedQueryExecutorsTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    BoundedQueryExecutors executors = new BoundedQueryExecutors(meterRegistry, new StatementCounter(), 1, 1, 3);
+
+    @AfterEach
+    public void after() {
+        executors.destroy();
+    }
+
+    @Test
+    public void shedLoadTest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedQueryExecutors.Bounded executor = executors.forEndpoint(BoundedQueryExecutorsTest.class);
+
+        // 스레드 1개 + 큐 1개가 차면 세 번째 요청은 거절
+        CompletableFuture<String> running = executor.submit(() -> await(release));
+        CompletableFuture<String> queued = executor.submit(() -> await(release));
+
+        assertThatThrownBy(() -> executor.submit(() -> "rejected"))
+                .isInstanceOf(BoundedQueryExecutors.QueryOverloadedException.class)
+                .extracting("retryAfterSeconds").isEqualTo(3L);
+        assertThat(meterRegistry.get("member.async.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("member.async.queue.depth").gauge().value()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get()).isEqualTo("done");
+        assertThat(queued.get()).isEqualTo("done");
+    }
+
+    private String await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+}
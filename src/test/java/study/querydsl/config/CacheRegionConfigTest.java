@@ -0,0 +1,43 @@
+package study.querydsl.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.configuration.TypesafeConfigurator;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import org.junit.jupiter.api.Test;
+import study.querydsl.repository.TeamIdResolver;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 2차 캐시 영역 설정(application.conf)을 Caffeine 이 읽는 그대로 확인
+ */
+class CacheRegionConfigTest {
+
+    Config config = ConfigFactory.load();
+
+    @Test
+    public void queryRegionsBoundedTest() {
+        CaffeineConfiguration<Object, Object> teamIdByName = region(TeamIdResolver.REGION);
+        assertThat(teamIdByName.getMaximumSize()).hasValue(1000);
+        assertThat(teamIdByName.getExpireAfterWrite()).hasValue(TimeUnit.MINUTES.toNanos(10));
+
+        CaffeineConfiguration<Object, Object> queryResults = region("default-query-results-region");
+        assertThat(queryResults.getMaximumSize()).isPresent();
+        assertThat(queryResults.getExpireAfterWrite()).isPresent();
+
+        // 설정에 없는 영역(엔티티 등)은 default
+        assertThat(TypesafeConfigurator.defaults(config).getMaximumSize()).isPresent();
+    }
+
+    @Test
+    public void timestampsRegionUnboundedTest() {
+        assertThat(region("default-update-timestamps-region").getMaximumSize()).isEmpty();
+    }
+
+    private CaffeineConfiguration<Object, Object> region(String name) {
+        return TypesafeConfigurator.<Object, Object>from(config, name).get();
+    }
+}
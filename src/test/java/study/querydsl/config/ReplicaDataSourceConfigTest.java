@@ -0,0 +1,67 @@
+package study.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 복제본 설정을 켠 애플리케이션 컨텍스트
+ * JPA(JpaTransactionManager) 읽기 전용 트랜잭션이 복제본으로 가는지, hikari 설정이 풀에 들어가는지 확인
+ * 복제본은 스키마가 없는 별도 인메모리 H2 라서 database() 로만 확인한다.
+ */
+@SpringBootTest(properties = {
+        "member.datasource.replica.urls=jdbc:h2:mem:replica_jpa;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=3",
+        "spring.datasource.hikari.connection-timeout=2000",
+        "member.startup.warmup=false"
+})
+class ReplicaDataSourceConfigTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    HikariDataSource primaryDataSource;
+
+    @Test
+    @Transactional(readOnly = true)
+    public void readOnlyTransactionTest() {
+        assertThat(currentDatabase()).isEqualTo("REPLICA_JPA");
+    }
+
+    @Test
+    @Transactional
+    public void writeTransactionTest() {
+        assertThat(currentDatabase()).isEqualTo("TEST");
+    }
+
+    @Test
+    public void hikariPropertiesTest() {
+        assertThat(primaryDataSource.getPoolName()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+        assertThat(primaryDataSource.getMaximumPoolSize()).isEqualTo(3);
+        assertThat(primaryDataSource.getConnectionTimeout()).isEqualTo(2000);
+
+        // 복제본 풀도 같은 설정
+        ReplicaRoutingDataSource routing = (ReplicaRoutingDataSource) ((LazyConnectionDataSourceProxy) dataSource).getTargetDataSource();
+        HikariDataSource replica = (HikariDataSource) routing.getResolvedDataSources().get("replica-0");
+        assertThat(replica.getJdbcUrl()).isEqualTo("jdbc:h2:mem:replica_jpa;DB_CLOSE_DELAY=-1");
+        assertThat(replica.isReadOnly()).isTrue();
+        assertThat(replica.getMaximumPoolSize()).isEqualTo(3);
+        assertThat(replica.getConnectionTimeout()).isEqualTo(2000);
+    }
+
+    private String currentDatabase() {
+        return (String) em.createNativeQuery("select database()").getSingleResult();
+    }
+}
@@ -0,0 +1,87 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 인메모리 H2 두 개를 primary / replica 로 사용
+ * 어느 DB 로 갔는지는 database() 결과로 확인
+ */
+class ReplicaRoutingDataSourceTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:replica_rt;DB_CLOSE_DELAY=-1", "sa", "");
+    ReplicaRoutingDataSource routingDataSource;
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate readOnlyTx;
+    TransactionTemplate writeTx;
+
+    @BeforeEach
+    public void before() {
+        DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:primary_rt;DB_CLOSE_DELAY=-1", "sa", "");
+        new JdbcTemplate(replica).execute("create table if not exists replica_lag (lag_ms bigint)");
+        new JdbcTemplate(replica).execute("delete from replica_lag");
+        new JdbcTemplate(replica).execute("insert into replica_lag values (0)");
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, Collections.singletonMap("replica-0", replica),
+                1000, "select lag_ms from replica_lag", meterRegistry);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        writeTx = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    public void after() throws Exception {
+        routingDataSource.close();
+    }
+
+    @Test
+    public void routingTest() {
+        assertThat(readOnlyTx.execute(status -> currentDatabase())).isEqualTo("REPLICA_RT");
+        assertThat(writeTx.execute(status -> currentDatabase())).isEqualTo("PRIMARY_RT");
+        assertThat(currentDatabase()).isEqualTo("PRIMARY_RT"); // 트랜잭션 없음
+
+        assertThat(connections("replica-0")).isEqualTo(1);
+        assertThat(connections(ReplicaRoutingDataSource.PRIMARY)).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    public void lagFallbackTest() {
+        new JdbcTemplate(replica).update("update replica_lag set lag_ms = 5000");
+        routingDataSource.refreshLag();
+
+        // 지연이 max-lag 를 넘으면 읽기 전용도 primary 로
+        assertThat(readOnlyTx.execute(status -> currentDatabase())).isEqualTo("PRIMARY_RT");
+        assertThat(meterRegistry.get("member.datasource.fallback").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("member.datasource.replica.lag").tag("target", "replica-0").gauge().value()).isEqualTo(5000);
+
+        // 지연이 줄면 다시 복제본 사용
+        new JdbcTemplate(replica).update("update replica_lag set lag_ms = 10");
+        routingDataSource.refreshLag();
+        assertThat(readOnlyTx.execute(status -> currentDatabase())).isEqualTo("REPLICA_RT");
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("select database()", String.class);
+    }
+
+    private double connections(String target) {
+        return meterRegistry.get("member.datasource.connections").tag("target", target).counter().count();
+    }
+}
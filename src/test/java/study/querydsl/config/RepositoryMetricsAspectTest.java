@@ -0,0 +1,97 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class RepositoryMetricsAspectTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void recordMetricsTest() {
+        em.persist(new Member("member1", 10));
+        em.persist(new Member("member2", 20));
+        em.flush();
+
+        // 같은 컨텍스트를 쓰는 다른 테스트에서도 기록되므로 전후 차이로 검증
+        DistributionSummary rows = meterRegistry.summary("member.repository.rows",
+                "repository", "MemberJpaRepository", "method", "findAll_QueryDsl");
+        DistributionSummary statements = meterRegistry.summary("member.repository.statements",
+                "repository", "MemberJpaRepository", "method", "findAll_QueryDsl");
+        long countBefore = rows.count();
+        double rowsBefore = rows.totalAmount();
+        double statementsBefore = statements.totalAmount();
+
+        memberJpaRepository.findAll_QueryDsl();
+
+        assertThat(rows.count()).isEqualTo(countBefore + 1);
+        assertThat(rows.totalAmount() - rowsBefore).isEqualTo(2);
+        assertThat(statements.totalAmount() - statementsBefore).isEqualTo(1); // select 한 번
+    }
+
+    @Test
+    public void recordFailureTest() {
+        Timer failed = meterRegistry.timer("member.repository.latency",
+                "repository", "MemberJpaRepository", "method", "search", "outcome", "error");
+        long failedBefore = failed.count();
+
+        assertThatThrownBy(() -> memberJpaRepository.search(null)).isInstanceOf(NullPointerException.class);
+
+        assertThat(failed.count()).isEqualTo(failedBefore + 1);
+    }
+
+    @Test
+    public void recordStreamTest() {
+        em.persist(new Member("member1", 10));
+        em.persist(new Member("member2", 20));
+        em.flush();
+
+        Timer stream = meterRegistry.timer("member.repository.stream",
+                "repository", "MemberRepositoryImpl", "method", "searchStream");
+        Timer latency = meterRegistry.timer("member.repository.latency",
+                "repository", "MemberRepositoryImpl", "method", "searchStream", "outcome", "success");
+        DistributionSummary rows = meterRegistry.summary("member.repository.rows",
+                "repository", "MemberRepositoryImpl", "method", "searchStream");
+        long streamBefore = stream.count();
+        double rowsBefore = rows.totalAmount();
+
+        try (Stream<MemberTeamDto> members = memberRepository.searchStream(new MemberSearchCondition(), 100)) {
+            assertThat(stream.count()).isEqualTo(streamBefore); // 아직 읽는 중
+            assertThat(members.collect(Collectors.toList())).hasSize(2);
+        }
+
+        // 커서를 연 시간이 아니라 close 까지의 시간과 실제로 읽은 row 수
+        assertThat(stream.count()).isEqualTo(streamBefore + 1);
+        assertThat(rows.totalAmount() - rowsBefore).isEqualTo(2);
+        assertThat(latency.count()).isZero();
+    }
+}
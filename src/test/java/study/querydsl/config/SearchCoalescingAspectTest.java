@@ -0,0 +1,136 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.repository.CountStrategy;
+import study.querydsl.repository.MemberWriteTracker;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchCoalescingAspectTest {
+
+    static final List<Object> KEY = Collections.singletonList("key");
+
+    MemberWriteTracker writeTracker = new MemberWriteTracker();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    public void inFlightTest() throws Exception {
+        SearchCoalescingAspect aspect = new SearchCoalescingAspect(writeTracker, meterRegistry, Duration.ZERO, 100);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> call(aspect, () -> {
+            started.countDown();
+            release.await();
+            return "result";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Object> follower = CompletableFuture.supplyAsync(() -> call(aspect, () -> "other"));
+        waitForFollower();
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(executions).hasValue(1);
+
+        // 끝난 뒤에 온 호출은 window 가 0 이면 다시 실행
+        assertThat(call(aspect, () -> "again")).isEqualTo("again");
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    public void windowTest() {
+        SearchCoalescingAspect aspect = new SearchCoalescingAspect(writeTracker, meterRegistry, Duration.ofMinutes(1), 100);
+
+        assertThat(call(aspect, () -> "first")).isEqualTo("first");
+        assertThat(call(aspect, () -> "second")).isEqualTo("first");
+        assertThat(meterRegistry.counter("member.search.coalesced", "method", "search", "type", "window").count()).isEqualTo(1);
+
+        // 변경이 커밋되면 새로 실행
+        writeTracker.markWritten();
+        assertThat(call(aspect, () -> "third")).isEqualTo("third");
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    public void failureNotReusedTest() {
+        SearchCoalescingAspect aspect = new SearchCoalescingAspect(writeTracker, meterRegistry, Duration.ofMinutes(1), 100);
+
+        assertThatThrownBy(() -> aspect.execute(KEY, "search", () -> {
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(call(aspect, () -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    public void pruneExpiredTest() throws Throwable {
+        SearchCoalescingAspect aspect = new SearchCoalescingAspect(writeTracker, meterRegistry, Duration.ofMillis(1), 100);
+
+        aspect.execute(Collections.singletonList("a"), "search", () -> "a");
+        aspect.execute(Collections.singletonList("b"), "search", () -> "b");
+        Thread.sleep(10);
+
+        // maxEntries 보다 적어도 다음 leader 가 끝날 때 window 가 지난 결과는 정리
+        aspect.execute(Collections.singletonList("c"), "search", () -> "c");
+        assertThat(meterRegistry.get("member.search.inflight").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    public void keyTest() {
+        MemberSearchCondition blank = new MemberSearchCondition();
+        blank.setUsername("");
+        Object[] args = {blank, PageRequest.of(0, 20), CountStrategy.EXACT};
+
+        assertThat(SearchCoalescingAspect.key("searchPageSimple", args))
+                .isEqualTo(SearchCoalescingAspect.key("searchPageSimple",
+                        new Object[]{new MemberSearchCondition(), PageRequest.of(0, 20), CountStrategy.EXACT}))
+                .isNotEqualTo(SearchCoalescingAspect.key("searchPageSimple",
+                        new Object[]{blank, PageRequest.of(1, 20), CountStrategy.EXACT}));
+        assertThat(SearchCoalescingAspect.key("search", new Object[]{new Object()})).isNull();
+
+        // 값에 구분자나 "null" 이 들어 있어도 다른 조건과 같은 키가 되지 않음
+        MemberSearchCondition nullText = new MemberSearchCondition();
+        nullText.setUsername("null");
+        MemberSearchCondition injected = new MemberSearchCondition();
+        injected.setUsername("a|usernameStartsWith=b");
+        MemberSearchCondition prefix = new MemberSearchCondition();
+        prefix.setUsername("a");
+        prefix.setUsernameStartsWith("b");
+        assertThat(SearchCoalescingAspect.key("search", new Object[]{nullText}))
+                .isNotEqualTo(SearchCoalescingAspect.key("search", new Object[]{new MemberSearchCondition()}));
+        assertThat(SearchCoalescingAspect.key("search", new Object[]{injected}))
+                .isNotEqualTo(SearchCoalescingAspect.key("search", new Object[]{prefix}));
+    }
+
+    private Object call(SearchCoalescingAspect aspect, SearchCoalescingAspect.Execution execution) {
+        try {
+            return aspect.execute(KEY, "search", () -> {
+                executions.incrementAndGet();
+                return execution.run();
+            });
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void waitForFollower() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.counter("member.search.coalesced", "method", "search", "type", "in_flight").count() < 1
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package study.querydsl.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartupTimelineTest {
+
+    @Test
+    public void timelineTest() {
+        StartupTimeline timeline = new StartupTimeline(System.currentTimeMillis());
+
+        timeline.onStarted();
+        timeline.onReady();
+        timeline.onRequestHandled();
+        timeline.onRequestHandled(); // 두 번째 요청부터는 기록하지 않음
+        timeline.mark("warmup");
+
+        List<Map<String, Object>> phases = timeline.timeline();
+        assertThat(phases.stream().map(p -> p.get("phase")).collect(Collectors.toList()))
+                .containsExactly("started", "ready", "first-request", "warmup");
+        assertThat(phases).allMatch(p -> (Long) p.get("millis") >= 0);
+    }
+}
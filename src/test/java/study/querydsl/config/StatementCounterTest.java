@@ -0,0 +1,54 @@
+package study.querydsl.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementCounterTest {
+
+    StatementCounter statementCounter = new StatementCounter();
+
+    @Test
+    public void trackSelectOnlyTest() {
+        statementCounter.startTracking();
+        for (int i = 0; i < 10; i++) {
+            statementCounter.inspect("insert into member (age, team_id, username, member_id) values (?, ?, ?, ?)");
+            statementCounter.inspect("call next value for member_seq");
+            statementCounter.inspect("/* select m from Member m */ select member0_.member_id from member member0_");
+        }
+        Map<String, Integer> executed = statementCounter.stopTracking();
+
+        assertThat(executed).containsOnlyKeys("/* select m from Member m */ select member0_.member_id from member member0_");
+    }
+
+    @Test
+    public void isSelectTest() {
+        assertThat(StatementCounter.isSelect("  SELECT 1")).isTrue();
+        assertThat(StatementCounter.isSelect("/* a */ /* b */\nselect 1")).isTrue();
+        assertThat(StatementCounter.isSelect("with t as (select 1) select * from t")).isTrue();
+        assertThat(StatementCounter.isSelect("/* select */ update member set age = 1")).isFalse();
+        assertThat(StatementCounter.isSelect("delete from member")).isFalse();
+    }
+
+    @Test
+    public void decorateTest() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            statementCounter.startTracking();
+            Runnable query = () -> statementCounter.inspect("select 1");
+            CompletableFuture.runAsync(query, task -> executor.execute(statementCounter.decorate(task))).get();
+            Map<String, Integer> executed = statementCounter.stopTracking();
+
+            assertThat(executed).containsEntry("select 1", 1);
+            // 작업이 끝나면 실행 스레드의 추적은 원래대로 (다음 작업에 섞이지 않음)
+            executor.submit(() -> assertThat(statementCounter.stopTracking()).isEmpty()).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
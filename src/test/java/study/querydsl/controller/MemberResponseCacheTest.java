@@ -0,0 +1,154 @@
+package study.querydsl.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import study.querydsl.config.BoundedQueryExecutors;
+import study.querydsl.config.ReadRouting;
+import study.querydsl.config.StatementCounter;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberWriteTracker;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberResponseCacheTest {
+
+    MemberWriteTracker writeTracker = new MemberWriteTracker();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    MemberResponseCache responseCache = newCache(writeTracker, Duration.ofSeconds(30));
+    BoundedQueryExecutors executors = new BoundedQueryExecutors(meterRegistry, new StatementCounter(), 1, 10, 1);
+    AtomicInteger queries = new AtomicInteger();
+
+    @AfterEach
+    public void after() {
+        executors.destroy();
+    }
+
+    @Test
+    public void conditionalGetTest() {
+        String key = MemberResponseCache.key("v1", new MemberSearchCondition());
+
+        ResponseEntity<byte[]> first = respond(key, null);
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(new String(first.getBody())).contains("\"username\":\"member1\"");
+        String etag = first.getHeaders().getETag();
+
+        ResponseEntity<byte[]> notModified = respond(key, "W/\"other\", " + etag);
+        assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(notModified.getBody()).isNull();
+
+        // ETag 없이 다시 와도 캐시된 바이트로 응답
+        assertThat(respond(key, null).getBody()).isEqualTo(first.getBody());
+        assertThat(queries).hasValue(1);
+        assertThat(meterRegistry.counter("member.response.cache", "result", "not_modified").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("member.response.cache", "result", "hit").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void evictOnWriteTest() {
+        String key = MemberResponseCache.key("v1", new MemberSearchCondition());
+        String etag = respond(key, null).getHeaders().getETag();
+
+        writeTracker.markWritten();
+
+        ResponseEntity<byte[]> afterWrite = respond(key, etag);
+        assertThat(afterWrite.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(afterWrite.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(queries).hasValue(2);
+    }
+
+    @Test
+    public void expireTest() throws Exception {
+        responseCache = newCache(writeTracker, Duration.ofMillis(50)); // max-lag(5ms) 보다 길면 ttl 그대로
+        String key = MemberResponseCache.key("v1", new MemberSearchCondition());
+        String etag = respond(key, null).getHeaders().getETag();
+
+        // 다른 인스턴스의 변경은 로컬 버전에 안 잡히므로 ttl 이 지나면 다시 조회
+        Thread.sleep(120);
+        ResponseEntity<byte[]> expired = respond(key, etag);
+        assertThat(expired.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(expired.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(queries).hasValue(2);
+    }
+
+    @Test
+    public void replicaReadTest() {
+        String key = MemberResponseCache.key("v1", new MemberSearchCondition());
+
+        ResponseEntity<byte[]> fromReplica = respond(key, null, ReadRouting::routedToReplica);
+        assertThat(fromReplica.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(fromReplica.getHeaders().getETag()).isNull();
+
+        // 저장하지 않았으므로 다시 조회, 결과를 받아 쓴 경우(coalescing)도 마찬가지
+        assertThat(respond(key, null, ReadRouting::markShared).getHeaders().getETag()).isNull();
+        assertThat(respond(key, null).getHeaders().getETag()).isNotNull();
+        assertThat(queries).hasValue(3);
+        assertThat(meterRegistry.counter("member.response.cache", "result", "replica").count()).isEqualTo(2);
+    }
+
+    @Test
+    public void etagTest() {
+        String key = MemberResponseCache.key("v1", new MemberSearchCondition());
+        String etag = responseCache.etag(key, 1, 0);
+
+        assertThat(etag).matches("\"[0-9a-f]{8}-[0-9a-f]{32}\"");
+        assertThat(responseCache.etag(key, 1, 0)).isEqualTo(etag);
+        assertThat(responseCache.etag(key, 2, 0)).isNotEqualTo(etag);
+        assertThat(responseCache.etag(key, 1, 1)).isNotEqualTo(etag);
+        assertThat(responseCache.etag(MemberResponseCache.key("v2", new MemberSearchCondition()), 1, 0)).isNotEqualTo(etag);
+
+        // 재시작(다른 인스턴스)하면 같은 버전이어도 다른 ETag
+        MemberResponseCache restarted = newCache(new MemberWriteTracker(), Duration.ofSeconds(30));
+        assertThat(restarted.etag(key, 1, 0)).isNotEqualTo(etag);
+    }
+
+    @Test
+    public void keyTest() {
+        MemberSearchCondition blank = new MemberSearchCondition();
+        blank.setTeamName("");
+        PageRequest page = PageRequest.of(0, 20);
+
+        assertThat(MemberResponseCache.key("v2", blank, page))
+                .isEqualTo(MemberResponseCache.key("v2", new MemberSearchCondition(), PageRequest.of(0, 20)));
+        assertThat(MemberResponseCache.key("v2", blank, page))
+                .isNotEqualTo(MemberResponseCache.key("v2", blank, PageRequest.of(0, 20, Sort.by("age"))))
+                .isNotEqualTo(MemberResponseCache.key("v1", blank, page));
+
+        MemberSearchCondition injected = new MemberSearchCondition();
+        injected.setUsername("a|usernameStartsWith=b");
+        MemberSearchCondition twoFields = new MemberSearchCondition();
+        twoFields.setUsername("a");
+        twoFields.setUsernameStartsWith("b");
+        assertThat(MemberResponseCache.key("v1", injected)).isNotEqualTo(MemberResponseCache.key("v1", twoFields));
+    }
+
+    private ResponseEntity<byte[]> respond(String key, String ifNoneMatch) {
+        return respond(key, ifNoneMatch, () -> {
+        });
+    }
+
+    /**
+     * @param routing 조회 중에 실행 (복제본에서 읽은 것처럼 표시)
+     */
+    private ResponseEntity<byte[]> respond(String key, String ifNoneMatch, Runnable routing) {
+        return responseCache.respond(key, ifNoneMatch, executors.forEndpoint(MemberResponseCacheTest.class), () -> {
+            queries.incrementAndGet();
+            routing.run();
+            return Collections.singletonList(new MemberTeamDto(1L, "member1", 10, 1L, "teamA"));
+        }).join();
+    }
+
+    private MemberResponseCache newCache(MemberWriteTracker writeTracker, Duration ttl) {
+        return new MemberResponseCache(new ObjectMapper(), writeTracker, meterRegistry, 10, 1024, ttl, Duration.ofMillis(5));
+    }
+}
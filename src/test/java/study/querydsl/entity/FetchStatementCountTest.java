@@ -0,0 +1,110 @@
+package study.querydsl.entity;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.config.NPlusOneGuard;
+import study.querydsl.config.StatementCounter;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 연관관계 접근 패턴별 실행 SQL 수 검증 (default_batch_fetch_size 적용)
+ */
+@SpringBootTest
+@Transactional
+class FetchStatementCountTest {
+
+    static final int TEAMS = 10;
+    static final int MEMBERS_PER_TEAM = 5;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    StatementCounter statementCounter;
+
+    @Autowired
+    NPlusOneGuard guard;
+
+    JPAQueryFactory queryFactory;
+
+    @BeforeEach
+    public void before() {
+        queryFactory = new JPAQueryFactory(em);
+        for (int t = 0; t < TEAMS; t++) {
+            Team team = new Team("team" + t);
+            em.persist(team);
+            for (int m = 0; m < MEMBERS_PER_TEAM; m++) {
+                em.persist(new Member("member" + t + "_" + m, m * 10, team));
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void memberToTeamTest() {
+        long before = statementCounter.current();
+
+        List<Member> members = guard.check("memberToTeam", () -> {
+            List<Member> result = queryFactory.selectFrom(member).fetch();
+            result.forEach(m -> m.getTeam().getName()); // 지연 로딩
+            return result;
+        });
+
+        assertThat(members).hasSize(TEAMS * MEMBERS_PER_TEAM);
+        assertThat(statementCounter.current() - before).isEqualTo(2); // 회원 1 + 팀 in 쿼리 1
+    }
+
+    @Test
+    public void teamToMembersTest() {
+        long before = statementCounter.current();
+
+        int memberCount = guard.check("teamToMembers", () -> {
+            List<Team> teams = queryFactory.selectFrom(team).fetch();
+            return teams.stream().mapToInt(t -> t.getMembers().size()).sum();
+        });
+
+        assertThat(memberCount).isEqualTo(TEAMS * MEMBERS_PER_TEAM);
+        assertThat(statementCounter.current() - before).isEqualTo(2); // 팀 1 + members in 쿼리 1
+    }
+
+    @Test
+    public void fetchJoinTest() {
+        long before = statementCounter.current();
+
+        List<Member> members = queryFactory
+                .selectFrom(member)
+                .join(member.team, team).fetchJoin()
+                .fetch();
+        members.forEach(m -> m.getTeam().getName());
+
+        assertThat(statementCounter.current() - before).isEqualTo(1);
+    }
+
+    @Test
+    public void detectRepeatedQueryTest() {
+        // 회원마다 따로 조회하는 전형적인 N+1 패턴
+        AtomicInteger executed = new AtomicInteger();
+        assertThatThrownBy(() -> guard.check("perMemberQuery", () -> {
+            for (int m = 0; m < MEMBERS_PER_TEAM; m++) {
+                queryFactory.selectFrom(member).where(member.username.eq("member0_" + m)).fetchOne();
+                executed.incrementAndGet();
+            }
+            return null;
+        })).isInstanceOf(NPlusOneGuard.NPlusOneDetectedException.class);
+        // 구간이 끝날 때가 아니라 threshold(5) 번째 문장을 실행하기 전에 실패 (웹 요청은 응답 커밋 전)
+        assertThat(executed).hasValue(MEMBERS_PER_TEAM - 1);
+    }
+}
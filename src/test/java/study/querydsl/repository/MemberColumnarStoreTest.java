@@ -0,0 +1,155 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.TeamAgeStatsDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberColumnarStoreTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberSearchPredicates predicates;
+
+    @Autowired
+    UsernameTrigramIndex usernameIndex;
+
+    MemberWriteTracker writeTracker = new MemberWriteTracker();
+    MemberColumnarStore store;
+    Team teamA;
+    Member member1;
+
+    @BeforeEach
+    public void before() {
+        teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        member1 = new Member("member1", 10, teamA);
+        em.persist(member1);
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        em.persist(new Member("loner", 50));
+        em.flush();
+        usernameIndex.invalidate(); // 롤백 테스트라 커밋 이벤트가 없으므로 현재 트랜잭션에서 다시 읽게 함
+        store = new MemberColumnarStore(jdbcTemplate, writeTracker, predicates);
+    }
+
+    @Test
+    public void sameAsJpaSearchTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        assertSameAsJpa(condition);
+
+        condition.setTeamName("teamB");
+        condition.setAgeGoe(35);
+        assertSameAsJpa(condition);
+
+        MemberSearchCondition username = new MemberSearchCondition();
+        username.setUsernameStartsWith("mem");
+        username.setAgeLoe(20);
+        assertSameAsJpa(username);
+
+        MemberSearchCondition contains = new MemberSearchCondition();
+        contains.setUsernameContains("BER3");
+        assertSameAsJpa(contains);
+
+        MemberSearchCondition exact = new MemberSearchCondition();
+        exact.setUsername("member2");
+        exact.setUsernameStartsWith("mem");
+        assertSameAsJpa(exact);
+
+        MemberSearchCondition unknownTeam = new MemberSearchCondition();
+        unknownTeam.setTeamName("teamC");
+        assertThat(store.search(unknownTeam)).isEmpty();
+        assertThat(store.count(unknownTeam)).isZero();
+    }
+
+    @Test
+    public void statsByTeamTest() {
+        List<TeamAgeStatsDto> stats = store.statsByTeam(new MemberSearchCondition());
+
+        assertThat(stats).extracting("teamName").containsExactlyInAnyOrder("teamA", "teamB", null);
+        TeamAgeStatsDto a = stats.stream().filter(s -> "teamA".equals(s.getTeamName())).findFirst().get();
+        assertThat(a.getCount()).isEqualTo(2);
+        assertThat(a.getMinAge()).isEqualTo(10);
+        assertThat(a.getMaxAge()).isEqualTo(20);
+        assertThat(a.getAvgAge()).isEqualTo(15.0);
+    }
+
+    @Test
+    public void incrementalRefreshTest() {
+        MemberSearchCondition teamACondition = new MemberSearchCondition();
+        teamACondition.setTeamName("teamA");
+        assertThat(store.count(teamACondition)).isEqualTo(2);
+
+        store.onMemberSaved(999_999L, "newbie", 5, teamA.getId());
+        store.onMemberSaved(member1.getId(), "member1", 11, teamA.getId());
+        store.onMemberDeleted(member1.getId());
+        teamA.setName("teamRenamed"); // 팀 이름은 DB(TeamIdResolver)에서 id 로 바꿔서 찾음
+        em.flush();
+        store.onTeamSaved(teamA.getId(), "teamRenamed");
+
+        teamACondition.setTeamName("teamRenamed");
+        assertThat(store.search(teamACondition)).extracting("username").containsExactly("member2", "newbie");
+
+        // 벌크 변경이면 다음 조회 때 DB 에서 다시 읽음 (DB 에는 member1, member2)
+        writeTracker.markBulkWritten();
+        assertThat(store.search(teamACondition)).extracting("username").containsExactly("member1", "member2");
+    }
+
+    @Test
+    public void eventsBeforeLoadTest() {
+        // 로딩 SELECT 에 보이지 않는 커밋도 로딩 후 반영
+        store.onMemberSaved(999_999L, "newbie", 5, teamA.getId());
+        store.onMemberDeleted(member1.getId());
+
+        MemberSearchCondition teamACondition = new MemberSearchCondition();
+        teamACondition.setTeamName("teamA");
+        assertThat(store.search(teamACondition)).extracting("username").containsExactly("member2", "newbie");
+    }
+
+    @Test
+    public void memberIdOrderTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        store.count(condition);
+
+        store.onMemberSaved(-1L, "early", 15, teamA.getId()); // 행은 뒤에 추가되지만 결과는 member_id 순
+        List<MemberTeamDto> result = store.search(condition);
+        assertThat(result.get(0).getMemberId()).isEqualTo(-1L);
+        assertThat(result).extracting("memberId").isSortedAccordingTo(Comparator.comparing(id -> (Long) id));
+    }
+
+    private void assertSameAsJpa(MemberSearchCondition condition) {
+        List<Long> expected = memberRepository.search(condition).stream()
+                .map(MemberTeamDto::getMemberId)
+                .sorted(Comparator.naturalOrder())
+                .collect(Collectors.toList());
+        assertThat(store.search(condition)).extracting("memberId").containsExactlyElementsOf(expected);
+        assertThat(store.count(condition)).isEqualTo(expected.size());
+    }
+}
@@ -0,0 +1,72 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 커넥션 풀(4개)보다 많은 요청이 동시에 searchPageConcurrent 를 호출해도
+ * 서로의 커넥션을 기다리며 멈추지 않는지 (connectionTimeout 전에 모두 끝나는지) 검증
+ * 풀 4개면 커넥션을 잡고 count 를 기다릴 수 있는 요청은 1개이고 나머지는 순차 실행된다.
+ * 풀 크기를 바꾸므로 다른 테스트와 DB 를 공유하지 않는 별도 컨텍스트에서 실행
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pool-saturation;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.connection-timeout=3000",
+        "member.coalescing.enabled=false"
+})
+class MemberConcurrentPagePoolTest {
+
+    static final int CALLERS = 16;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    public void poolSaturationTest() throws Exception {
+        // 빈 결과의 두 번째 이후 페이지는 count 가 꼭 필요하므로 모든 호출이 count 결과를 기다린다
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("nobody");
+
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Page<MemberTeamDto>>> pages = new ArrayList<>();
+        try {
+            for (int i = 0; i < CALLERS; i++) {
+                PageRequest pageRequest = PageRequest.of(i + 1, 10);
+                pages.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return memberRepository.searchPageConcurrent(condition, pageRequest, CountStrategy.EXACT);
+                }, callers));
+            }
+            start.countDown();
+
+            CompletableFuture.allOf(pages.toArray(new CompletableFuture[0])).get(20, TimeUnit.SECONDS);
+        } finally {
+            callers.shutdownNow();
+        }
+
+        for (CompletableFuture<Page<MemberTeamDto>> page : pages) {
+            assertThat(page.join().getTotalElements()).isZero();
+        }
+    }
+}
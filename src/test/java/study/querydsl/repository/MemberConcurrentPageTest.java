@@ -0,0 +1,68 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * count 쿼리가 다른 스레드/트랜잭션에서 실행되므로 롤백 테스트가 아니라 커밋 후 정리하는 방식으로 검증
+ */
+@SpringBootTest
+class MemberConcurrentPageTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @BeforeEach
+    public void before() {
+        transactionTemplate.execute(status -> {
+            Team team = new Team("concurrentTeam");
+            em.persist(team);
+            for (int i = 0; i < 10; i++) {
+                em.persist(new Member("concurrent" + i, i, team));
+            }
+            return null;
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        transactionTemplate.execute(status -> {
+            em.createQuery("delete from Member m where m.username like 'concurrent%'").executeUpdate();
+            em.createQuery("delete from Team t where t.name = 'concurrentTeam'").executeUpdate();
+            return null;
+        });
+    }
+
+    @Test
+    public void searchPageConcurrentTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("concurrentTeam");
+        PageRequest pageRequest = PageRequest.of(0, 3);
+
+        Page<MemberTeamDto> concurrent = memberRepository.searchPageConcurrent(condition, pageRequest, CountStrategy.EXACT);
+        Page<MemberTeamDto> sequential = memberRepository.searchPageComplex(condition, pageRequest, CountStrategy.EXACT);
+
+        assertThat(concurrent.getTotalElements()).isEqualTo(10);
+        assertThat(concurrent.getContent()).isEqualTo(sequential.getContent());
+    }
+}
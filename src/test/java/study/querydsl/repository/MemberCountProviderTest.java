@@ -0,0 +1,98 @@
+package study.querydsl.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberSearchKey;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberCountProviderTest {
+
+    MemberWriteTracker writeTracker = new MemberWriteTracker();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    MemberCountProvider countProvider = new MemberCountProvider(null, writeTracker, meterRegistry, Duration.ofMinutes(1), 100);
+
+    @Test
+    public void cachedCountTest() {
+        AtomicInteger executed = new AtomicInteger();
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        for (int i = 0; i < 3; i++) {
+            long total = countProvider.total(CountStrategy.CACHED, condition, () -> {
+                executed.incrementAndGet();
+                return 10L;
+            }).getAsLong();
+            assertThat(total).isEqualTo(10L);
+        }
+
+        // count 쿼리는 한 번만 실행, 나머지는 캐시 hit
+        assertThat(executed.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("member.count.cache").tag("result", "hit").counter().count()).isEqualTo(2);
+
+        // 회원이 변경되면 다시 count
+        writeTracker.markWritten();
+        countProvider.total(CountStrategy.CACHED, condition, () -> {
+            executed.incrementAndGet();
+            return 11L;
+        }).getAsLong();
+        assertThat(executed.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void normalizeTest() {
+        MemberSearchCondition blank = new MemberSearchCondition();
+        blank.setUsername(" ");
+        blank.setTeamName("");
+
+        assertThat(MemberSearchKey.of(blank)).isEqualTo(MemberSearchKey.of(new MemberSearchCondition()));
+        assertThat(MemberCountProvider.isUnfiltered(blank)).isTrue();
+    }
+
+    @Test
+    public void keyNotForgeableTest() {
+        MemberSearchCondition nullText = new MemberSearchCondition();
+        nullText.setUsername("null");
+        assertThat(MemberSearchKey.of(nullText)).isNotEqualTo(MemberSearchKey.of(new MemberSearchCondition()));
+        assertThat(MemberSearchKey.of(nullText).encode()).isNotEqualTo(MemberSearchKey.of(new MemberSearchCondition()).encode());
+
+        MemberSearchCondition injected = new MemberSearchCondition();
+        injected.setUsername("a|usernameStartsWith=b");
+        MemberSearchCondition twoFields = new MemberSearchCondition();
+        twoFields.setUsername("a");
+        twoFields.setUsernameStartsWith("b");
+        assertThat(MemberSearchKey.of(injected)).isNotEqualTo(MemberSearchKey.of(twoFields));
+        assertThat(MemberSearchKey.of(injected).encode()).isNotEqualTo(MemberSearchKey.of(twoFields).encode());
+
+        // 길이 접두어 형식을 흉내 낸 값도 다른 필드로 넘어가지 않음
+        MemberSearchCondition mimic = new MemberSearchCondition();
+        mimic.setUsername("1:a-");
+        MemberSearchCondition split = new MemberSearchCondition();
+        split.setUsername("1");
+        split.setUsernameStartsWith("a");
+        assertThat(MemberSearchKey.of(mimic).encode()).isNotEqualTo(MemberSearchKey.of(split).encode());
+    }
+
+    @Test
+    public void estimatedFallbackTest() {
+        // DB 종류를 알 수 없으면(추정치 사용 불가) 예외 없이 캐시된 정확한 count 로 대체
+        JdbcTemplate broken = new JdbcTemplate(new DriverManagerDataSource("jdbc:unknown:db"));
+        MemberCountProvider provider = new MemberCountProvider(broken, writeTracker, meterRegistry, Duration.ofMinutes(1), 100);
+        AtomicInteger executed = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            long total = provider.total(CountStrategy.ESTIMATED, new MemberSearchCondition(), () -> {
+                executed.incrementAndGet();
+                return 7L;
+            }).getAsLong();
+            assertThat(total).isEqualTo(7L);
+        }
+        assertThat(executed.get()).isEqualTo(1);
+    }
+}
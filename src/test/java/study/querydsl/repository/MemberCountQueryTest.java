@@ -0,0 +1,164 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.config.StatementCounter;
+import study.querydsl.dto.MemberSearchCondition;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * count 전용 쿼리가 content 쿼리와 같은 row 수를 세는지 무작위 검색 조건으로 검증
+ * 데이터 건수는 -Dmember.count-test.rows 로 조절 (기본 1만 건)
+ * 대량 검증은 perf 태그라 기본 test 에서는 빠지고 ./gradlew perfTest 로 실행 (perfTest 기본 100만 건)
+ */
+@SpringBootTest
+@Transactional
+class MemberCountQueryTest {
+
+    static final int ROWS = Integer.getInteger("member.count-test.rows", 10_000);
+    static final int TEAMS = 10;
+    static final int TRIES = 200;
+    static final long ID_BASE = 1_000_000_000L; // 시퀀스로 생성된 id와 겹치지 않도록
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberCountProvider countProvider;
+
+    @Autowired
+    MemberSearchPredicates predicates;
+
+    @Autowired
+    MemberSearchShapeCache shapeCache;
+
+    @Autowired
+    ConcurrentQueryRunner concurrentQueryRunner;
+
+    @Autowired
+    StatementCounter statementCounter;
+
+    @Autowired
+    MemberWriteTracker writeTracker;
+
+    @AfterEach
+    public void after() {
+        writeTracker.markBulkWritten(); // 롤백되는 seed 데이터가 인메모리 인덱스/캐시에 남지 않게
+    }
+
+    @Test
+    @Tag("perf")
+    public void countMatchesContentTest() {
+        seed(new Random(42));
+        writeTracker.markBulkWritten(); // JDBC 로 넣었으므로 username 인덱스를 다시 만들게
+        MemberRepositoryImpl repository = new MemberRepositoryImpl(em, countProvider, predicates, shapeCache, concurrentQueryRunner);
+
+        Random random = new Random(7);
+        for (int i = 0; i < TRIES; i++) {
+            MemberSearchCondition condition = randomCondition(random);
+
+            // 기준은 페이징 없는 search 결과 건수
+            int contentSize = repository.search(condition).size();
+            long count = repository.count(condition, repository.resolveIds(condition));
+            long total = repository.searchPageSimple(condition, PageRequest.of(0, 1)).getTotalElements();
+
+            assertThat(count).as(condition.toString()).isEqualTo(contentSize);
+            assertThat(total).as(condition.toString()).isEqualTo(contentSize);
+        }
+    }
+
+    @Test
+    public void countWithoutJoinTest() {
+        MemberRepositoryImpl repository = new MemberRepositoryImpl(em, countProvider, predicates, shapeCache, concurrentQueryRunner);
+
+        MemberSearchCondition ageOnly = new MemberSearchCondition();
+        ageOnly.setAgeGoe(20);
+        assertNoJoin(repository, ageOnly);
+
+        // 팀 조건도 team_id 비교로 바뀌므로 조인하지 않음
+        MemberSearchCondition withTeam = new MemberSearchCondition();
+        withTeam.setTeamName("teamA");
+        assertNoJoin(repository, withTeam);
+    }
+
+    /**
+     * JPQL 과 실제로 실행된 SQL 모두 join 이 없어야 함
+     */
+    private void assertNoJoin(MemberRepositoryImpl repository, MemberSearchCondition condition) {
+        MemberSearchPredicates.ResolvedIds ids = new MemberSearchPredicates.ResolvedIds(
+                hasText(condition.getTeamName()) ? Collections.singletonList(ID_BASE) : null, null);
+        assertThat(repository.countQuery(condition, ids).toString()).doesNotContainIgnoringCase("join");
+
+        statementCounter.startTracking();
+        repository.countQuery(condition, ids).fetchOne();
+        Map<String, Integer> executed = statementCounter.stopTracking();
+
+        assertThat(executed.keySet())
+                .filteredOn(sql -> sql.toLowerCase().contains("count("))
+                .hasSize(1)
+                .allSatisfy(sql -> assertThat(sql).doesNotContainIgnoringCase("join"));
+    }
+
+    private void seed(Random random) {
+        List<Object[]> teams = new ArrayList<>();
+        for (int t = 0; t < TEAMS; t++) {
+            teams.add(new Object[]{ID_BASE + t, "team" + t});
+        }
+        jdbcTemplate.batchUpdate("insert into team (id, name) values (?, ?)", teams);
+
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            // 일부 회원은 팀이 없도록 해서 left join 결과도 검증
+            Long teamId = random.nextInt(20) == 0 ? null : ID_BASE + random.nextInt(TEAMS);
+            batch.add(new Object[]{ID_BASE + i, "member" + i, random.nextInt(100), teamId});
+            if (batch.size() == 10_000) {
+                jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)", batch);
+        }
+    }
+
+    private MemberSearchCondition randomCondition(Random random) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        if (random.nextBoolean()) {
+            condition.setUsername(random.nextInt(10) == 0 ? "nobody" : "member" + random.nextInt(ROWS));
+        }
+        if (random.nextBoolean()) {
+            condition.setTeamName(random.nextInt(10) == 0 ? "noTeam" : "team" + random.nextInt(TEAMS));
+        }
+        if (random.nextBoolean()) {
+            condition.setAgeGoe(random.nextInt(100));
+        }
+        if (random.nextBoolean()) {
+            condition.setAgeLoe(random.nextInt(100));
+        }
+        if (random.nextInt(4) == 0) {
+            condition.setUsernameStartsWith("member" + random.nextInt(100));
+        }
+        if (random.nextInt(4) == 0) {
+            condition.setUsernameContains("ER" + (1000 + random.nextInt(9000))); // 대소문자 무시, 100만 건이어도 max-candidates 이하
+        }
+        return condition;
+    }
+}
@@ -0,0 +1,199 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.config.StatementCounter;
+import study.querydsl.dto.KeysetCursor;
+import study.querydsl.dto.KeysetSlice;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+
+import javax.persistence.EntityManager;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 인덱스 점검
+ * 검색 조건 모양(조건 없는 전체 조회 제외)마다 실제 실행되는 SQL을 모아서 H2 EXPLAIN 으로 실행 계획을 확인하고
+ * 테이블 풀 스캔(tableScan)이 있으면 실패한다.
+ * 대상: search, count, 페이징 content(searchPageSimple/Complex, left join + offset),
+ * 키셋 페이징(정렬 순서별 첫 페이지와 다음 페이지), searchStream
+ * 파라미터 값은 SQL 에서 ? 앞의 컬럼/연산자를 보고 채운다. (모르는 자리면 실패)
+ * 데이터 건수는 -Dmember.index-test.rows 로 조절 (기본 10만 건)
+ */
+@SpringBootTest
+@Transactional
+class MemberIndexAdvisorTest {
+
+    static final int ROWS = Integer.getInteger("member.index-test.rows", 100_000);
+    static final int TEAMS = 10;
+    static final long ID_BASE = 1_000_000_000L;
+    static final Pattern SQL_COMMENT = Pattern.compile("^\\s*/\\*.*?\\*/", Pattern.DOTALL); // use_sql_comments 의 JPQL (?1 포함)
+    static final Pattern PARAMETER = Pattern.compile(
+            "(?:(\\w+)\\)?\\s*(>=|<=|=|>|<|like|in\\s*\\()|(limit|offset))\\s*$", Pattern.CASE_INSENSITIVE);
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    StatementCounter statementCounter;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberCountProvider countProvider;
+
+    @Autowired
+    MemberSearchPredicates predicates;
+
+    @Autowired
+    MemberSearchShapeCache shapeCache;
+
+    @Autowired
+    ConcurrentQueryRunner concurrentQueryRunner;
+
+    @Autowired
+    MemberWriteTracker writeTracker;
+
+    @AfterEach
+    public void after() {
+        writeTracker.markBulkWritten(); // 롤백되는 seed 데이터가 인메모리 인덱스/캐시에 남지 않게
+    }
+
+    @Test
+    public void noTableScanTest() {
+        seed();
+        writeTracker.markBulkWritten(); // JDBC 로 넣었으므로 username 인덱스를 다시 만들게
+        MemberRepositoryImpl repository = new MemberRepositoryImpl(em, countProvider, predicates, shapeCache, concurrentQueryRunner);
+
+        List<String> problems = new ArrayList<>();
+        for (int shape = 1; shape < MemberSearchShapeCache.SHAPES; shape++) {
+            MemberSearchCondition condition = conditionOf(shape);
+
+            statementCounter.startTracking();
+            memberRepository.search(condition);
+            repository.countQuery(condition, repository.resolveIds(condition)).fetchOne();
+            memberRepository.searchPageSimple(condition, PageRequest.of(1, 20));
+            memberRepository.searchPageComplex(condition, PageRequest.of(1, 20));
+            for (KeysetCursor.Order order : KeysetCursor.Order.values()) {
+                KeysetSlice<MemberTeamDto> first = memberRepository.searchSlice(condition, KeysetCursor.first(order, 20));
+                if (first.isHasNext()) { // 커서 이후(seek) 쿼리
+                    memberRepository.searchSlice(condition, KeysetCursor.decode(first.getNextCursor(), 20));
+                }
+            }
+            try (Stream<MemberTeamDto> stream = memberRepository.searchStream(condition, 100)) {
+                stream.findFirst();
+            }
+            Set<String> executed = statementCounter.stopTracking().keySet();
+
+            for (String sql : executed) {
+                String plan = explain(sql, condition);
+                if (plan.contains(".tableScan")) {
+                    problems.add("shape=" + condition + "\n" + plan);
+                }
+            }
+        }
+
+        assertThat(problems).as("테이블 풀 스캔 쿼리").isEmpty();
+    }
+
+    private String explain(String sql, MemberSearchCondition condition) {
+        String statement = SQL_COMMENT.matcher(sql).replaceFirst("");
+        String[] segments = statement.split("\\?", -1);
+        List<Object> args = new ArrayList<>();
+        for (int i = 0; i < segments.length - 1; i++) {
+            if (i > 0 && segments[i].trim().equals(",")) { // in (?, ?, ...) 의 나머지
+                args.add(args.get(i - 1));
+                continue;
+            }
+            Matcher matcher = PARAMETER.matcher(segments[i]);
+            assertThat(matcher.find()).as("알 수 없는 파라미터 자리: %s", statement).isTrue();
+            args.add(matcher.group(3) != null
+                    ? 20 // limit, offset
+                    : parameter(matcher.group(1).toLowerCase(), matcher.group(2).toLowerCase(), condition));
+        }
+        return jdbcTemplate.queryForObject("explain " + statement, String.class, args.toArray());
+    }
+
+    private Object parameter(String column, String operator, MemberSearchCondition condition) {
+        switch (column) {
+            case "name": // 팀 이름 -> id 조회
+                return condition.getTeamName();
+            case "username":
+                if (operator.equals("=")) {
+                    return condition.getUsername();
+                }
+                return operator.equals(">=") // usernameStartsWith 범위
+                        ? condition.getUsernameStartsWith()
+                        : MemberSearchShapeCache.prefixEnd(condition.getUsernameStartsWith());
+            case "team_id":
+                return ID_BASE + 1;
+            case "age":
+                if (operator.equals(">=")) {
+                    return condition.getAgeGoe();
+                }
+                return operator.equals("<=") ? condition.getAgeLoe() : 35; // 키셋 커서의 마지막 나이
+            case "member_id": // usernameContains 결과, 키셋 커서의 마지막 id
+                return ID_BASE + 123;
+            default:
+                throw new IllegalStateException("unknown parameter column: " + column + " " + operator);
+        }
+    }
+
+    private MemberSearchCondition conditionOf(int shape) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        if ((shape & MemberSearchShapeCache.USERNAME) != 0) {
+            condition.setUsername("member123");
+        }
+        if ((shape & MemberSearchShapeCache.USERNAME_PREFIX) != 0) {
+            condition.setUsernameStartsWith("member12");
+        }
+        if ((shape & MemberSearchShapeCache.USERNAME_IDS) != 0) {
+            condition.setUsernameContains("ember1234"); // 트라이그램 인덱스 -> member_id in (...)
+        }
+        if ((shape & MemberSearchShapeCache.TEAM_NAME) != 0) {
+            condition.setTeamName("team1");
+        }
+        if ((shape & MemberSearchShapeCache.AGE_GOE) != 0) {
+            condition.setAgeGoe(30);
+        }
+        if ((shape & MemberSearchShapeCache.AGE_LOE) != 0) {
+            condition.setAgeLoe(40);
+        }
+        return condition;
+    }
+
+    private void seed() {
+        List<Object[]> teams = new ArrayList<>();
+        for (int t = 0; t < TEAMS; t++) {
+            teams.add(new Object[]{ID_BASE + t, "team" + t});
+        }
+        jdbcTemplate.batchUpdate("insert into team (id, name) values (?, ?)", teams);
+
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new Object[]{ID_BASE + i, "member" + i, random.nextInt(100), ID_BASE + random.nextInt(TEAMS)});
+            if (batch.size() == 10_000) {
+                jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)", batch);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package study.querydsl.repository;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -46,6 +47,21 @@ class MemberJpaRepositoryTest {
         assertThat(result4).containsExactly(member);
     }
 
+    @Test
+    public void readOnlyQueryTest(){
+        em.persist(new Member("member1", 10));
+        em.persist(new Member("member2", 20));
+        em.flush();
+        em.clear();
+
+        Session session = em.unwrap(Session.class);
+        List<Member> result = memberJpaRepository.findAll_QueryDsl();
+
+        // 쓰기 트랜잭션 안에서 조회해도 READ_ONLY 힌트로 읽은 엔티티는 스냅샷이 없다 (dirty checking 대상 아님)
+        assertThat(result).hasSize(2);
+        assertThat(result).allMatch(session::isReadOnly);
+    }
+
     @Test
     public void searchTest(){
         Team teamA = new Team("teamA");
@@ -74,4 +90,30 @@ class MemberJpaRepositoryTest {
         assertThat(result).extracting("username").containsExactly("member4");
     }
 
+    @Test
+    public void searchUsernameTest(){
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("alpha1", 10, teamA));
+        em.persist(new Member("alphaBeta", 20, teamA));
+        em.persist(new Member("gamma_1", 30));
+
+        MemberSearchCondition prefix = new MemberSearchCondition();
+        prefix.setUsernameStartsWith("alpha");
+        assertThat(memberJpaRepository.search(prefix)).extracting("username")
+                .containsExactlyInAnyOrder("alpha1", "alphaBeta");
+        assertThat(memberJpaRepository.searchByBuilder(prefix)).extracting("username")
+                .containsExactlyInAnyOrder("alpha1", "alphaBeta");
+
+        MemberSearchCondition contains = new MemberSearchCondition();
+        contains.setUsernameContains("BETA");
+        assertThat(memberJpaRepository.search(contains)).extracting("username").containsExactly("alphaBeta");
+        assertThat(memberJpaRepository.searchByBuilder(contains)).extracting("username").containsExactly("alphaBeta");
+
+        // _ 는 like 와일드카드가 아니라 글자로 비교
+        MemberSearchCondition underscore = new MemberSearchCondition();
+        underscore.setUsernameContains("a_1");
+        assertThat(memberJpaRepository.search(underscore)).extracting("username").containsExactly("gamma_1");
+    }
+
 }
\ No newline at end of file
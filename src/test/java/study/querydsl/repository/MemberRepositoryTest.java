@@ -5,6 +5,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import study.querydsl.dto.KeysetCursor;
+import study.querydsl.dto.KeysetSlice;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.entity.Member;
@@ -12,10 +14,14 @@ import study.querydsl.entity.QMember;
 import study.querydsl.entity.Team;
 
 import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 @Transactional
@@ -27,6 +33,12 @@ class MemberRepositoryTest {
     @Autowired
     MemberRepository memberRepository;
 
+    @Autowired
+    MemberSearchShapeCache shapeCache;
+
+    @Autowired
+    UsernameTrigramIndex usernameIndex;
+
     @Test
     public void basicTest() {
         Member member = new Member("member1", 10);
@@ -70,6 +82,44 @@ class MemberRepositoryTest {
         assertThat(result).extracting("username").containsExactly("member4");
     }
 
+    @Test
+    public void searchUnknownTeamTest() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamC");
+
+        assertThat(memberRepository.search(condition)).isEmpty();
+        assertThat(memberRepository.searchPageComplex(condition, PageRequest.of(0, 3)).getTotalElements()).isZero();
+    }
+
+    @Test
+    public void searchUsernameTest() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("alice", 10, teamA));
+        em.persist(new Member("Malice", 20, teamA));
+        em.persist(new Member("alex", 30, teamA));
+        em.persist(new Member("bob", 40, teamA));
+        em.flush();
+        usernameIndex.invalidate(); // 롤백 테스트라 커밋 이벤트가 없으므로 현재 트랜잭션에서 다시 읽게 함
+
+        MemberSearchCondition prefix = new MemberSearchCondition();
+        prefix.setUsernameStartsWith("al");
+        assertThat(memberRepository.search(prefix)).extracting("username").containsExactlyInAnyOrder("alice", "alex");
+
+        MemberSearchCondition contains = new MemberSearchCondition();
+        contains.setUsernameContains("LIC");
+        assertThat(memberRepository.search(contains)).extracting("username").containsExactlyInAnyOrder("alice", "Malice");
+        assertThat(memberRepository.searchPageComplex(contains, PageRequest.of(0, 1)).getTotalElements()).isEqualTo(2);
+
+        contains.setUsernameContains("zzz");
+        assertThat(memberRepository.search(contains)).isEmpty();
+        assertThat(memberRepository.searchPageComplex(contains, PageRequest.of(0, 1)).getTotalElements()).isZero();
+    }
+
     @Test
     public void searchPageableSimpleTest() {
         Team teamA = new Team("teamA");
@@ -97,6 +147,64 @@ class MemberRepositoryTest {
         assertThat(result.getContent()).extracting("username").containsExactly("member1", "member2", "member3");
     }
 
+    @Test
+    public void searchSliceTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 40, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 20, teamB));
+        em.persist(new Member("member4", 10, teamB));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeLoe(40);
+
+        // 2개씩 끝까지 넘겨보면서 (age, member_id) 순서로 전부 읽히는지 확인
+        List<MemberTeamDto> all = new ArrayList<>();
+        KeysetSlice<MemberTeamDto> slice = memberRepository.searchSlice(condition, KeysetCursor.first(KeysetCursor.Order.AGE_ID, 2));
+        all.addAll(slice.getContent());
+
+        // 커서에 들어 있는 정렬과 다른 order 는 거부
+        String nextCursor = slice.getNextCursor();
+        assertThat(KeysetCursor.decode(nextCursor, KeysetCursor.Order.AGE_ID, 2).getOrder()).isEqualTo(KeysetCursor.Order.AGE_ID);
+        assertThat(KeysetCursor.decode(nextCursor, null, 2).getOrder()).isEqualTo(KeysetCursor.Order.AGE_ID);
+        assertThatThrownBy(() -> KeysetCursor.decode(nextCursor, KeysetCursor.Order.ID, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        while (slice.isHasNext()) {
+            slice = memberRepository.searchSlice(condition, KeysetCursor.decode(slice.getNextCursor(), 2));
+            all.addAll(slice.getContent());
+        }
+
+        assertThat(all).extracting("username").containsExactly("member4", "member2", "member3", "member1");
+        assertThat(slice.getNextCursor()).isNull();
+    }
+
+    /**
+     * 몇 번째 페이지든 같은 JPQL에 offset 없이 limit만 걸리는지 검증
+     */
+    @Test
+    public void searchSliceQueryShapeTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        List<Long> teamIds = Collections.singletonList(1L);
+
+        KeysetCursor first = KeysetCursor.first(KeysetCursor.Order.AGE_ID, 20);
+        MemberTeamDto shallowLast = new MemberTeamDto(21L, "member21", 1, null, "teamA");
+        MemberTeamDto deepLast = new MemberTeamDto(200_000L, "member200000", 99, null, "teamA");
+
+        TypedQuery<MemberTeamDto> shallow = shapeCache.createSliceQuery(em, condition, teamIds, null, first.next(shallowLast));
+        TypedQuery<MemberTeamDto> deep = shapeCache.createSliceQuery(em, condition, teamIds, null, first.next(deepLast));
+
+        assertThat(deep.unwrap(org.hibernate.query.Query.class).getQueryString())
+                .isEqualTo(shallow.unwrap(org.hibernate.query.Query.class).getQueryString())
+                .contains("order by m.age asc, m.id asc");
+        assertThat(deep.getFirstResult()).isZero();
+        assertThat(deep.getMaxResults()).isEqualTo(21);
+    }
+
     /**
      * 한계점
      * 조인이 안됨
@@ -0,0 +1,58 @@
+package study.querydsl.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import study.querydsl.dto.KeysetCursor;
+import study.querydsl.dto.MemberSearchCondition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberSearchShapeCacheTest {
+
+    MemberSearchShapeCache shapeCache = new MemberSearchShapeCache(new SimpleMeterRegistry());
+
+    @Test
+    public void shapeTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        assertThat(MemberSearchShapeCache.shapeOf(condition)).isZero();
+
+        condition.setUsername(" "); // 빈 문자열은 조건 없음
+        condition.setTeamName("teamA");
+        condition.setAgeLoe(40);
+        int shape = MemberSearchShapeCache.shapeOf(condition);
+
+        assertThat(shape).isEqualTo(MemberSearchShapeCache.TEAM_NAME | MemberSearchShapeCache.AGE_LOE);
+        assertThat(shapeCache.jpql(shape))
+                .endsWith(" where m.team.id in :teamIds and m.age <= :ageLoe")
+                .doesNotContain(":username");
+        assertThat(shapeCache.jpql(0)).doesNotContain("where");
+    }
+
+    @Test
+    public void usernameShapeTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsernameStartsWith("mem");
+        condition.setUsernameContains("ber");
+        condition.setAgeGoe(10);
+        int shape = MemberSearchShapeCache.shapeOf(condition);
+
+        assertThat(shapeCache.jpql(shape))
+                .endsWith(" where m.username >= :prefixFrom and m.username < :prefixTo and m.id in :usernameIds and m.age >= :ageGoe");
+        assertThat(MemberSearchShapeCache.prefixEnd("mem")).isEqualTo("men");
+    }
+
+    @Test
+    public void sliceShapeTest() {
+        int shape = MemberSearchShapeCache.TEAM_NAME;
+
+        assertThat(shapeCache.sliceJpql(shape, KeysetCursor.Order.ID, false))
+                .endsWith(" where m.team.id in :teamIds order by m.id asc");
+        assertThat(shapeCache.sliceJpql(shape, KeysetCursor.Order.AGE_ID, true))
+                .endsWith(" where m.team.id in :teamIds and (m.age > :lastAge or (m.age = :lastAge and m.id > :lastId))"
+                        + " order by m.age asc, m.id asc");
+        assertThat(shapeCache.sliceJpql(0, KeysetCursor.Order.ID, true))
+                .endsWith(" where m.id > :lastId order by m.id asc");
+        // search / 페이징 content 는 정렬 없이 같은 JPQL
+        assertThat(shapeCache.jpql(shape)).doesNotContain("order by");
+    }
+}
@@ -0,0 +1,62 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RefreshableSnapshotTest {
+
+    @Test
+    public void readDuringRebuildTest() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RefreshableSnapshot<List<String>> snapshot = new RefreshableSnapshot<>(() -> {
+            List<String> rows = new ArrayList<>();
+            rows.add("load" + loads.incrementAndGet());
+            if (loads.get() == 2) { // 두 번째 로딩은 오래 걸리는 SELECT 라고 가정
+                loading.countDown();
+                await(release);
+            }
+            return rows;
+        });
+        assertThat(snapshot.read(ArrayList::new)).containsExactly("load1");
+
+        snapshot.invalidate();
+        CompletableFuture<List<String>> rebuild = CompletableFuture.supplyAsync(() -> snapshot.read(ArrayList::new));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // 만드는 동안 다른 읽기는 기다리지 않고 이전 스냅샷, 변경은 이전 것과 새 것 모두에 반영
+        assertThat(snapshot.read(ArrayList::new)).containsExactly("load1");
+        snapshot.apply(rows -> rows.add("event"));
+        assertThat(snapshot.read(ArrayList::new)).containsExactly("load1", "event");
+
+        release.countDown();
+        assertThat(rebuild.get(5, TimeUnit.SECONDS)).containsExactly("load2", "event");
+        assertThat(snapshot.read(ArrayList::new)).containsExactly("load2", "event");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void eventsBeforeFirstLoadTest() {
+        RefreshableSnapshot<List<String>> snapshot = new RefreshableSnapshot<>(ArrayList::new);
+        snapshot.apply(rows -> rows.add("event"));
+
+        assertThat(snapshot.read(ArrayList::new)).containsExactly("event");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.TeamWithMembersDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "member.team.max-members-per-team=2")
+@Transactional
+class TeamQueryRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TeamQueryRepository teamQueryRepository;
+
+    @Test
+    public void findTeamsWithMembersTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        Team teamC = new Team("teamC"); // 회원 없음
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(teamC);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamA));
+        em.persist(new Member("member4", 40, teamB));
+        em.flush();
+        em.clear();
+
+        // 회원 row 가 아니라 팀 단위로 2개씩 페이징, 회원은 팀당 2명까지
+        Page<TeamWithMembersDto> first = teamQueryRepository.findTeamsWithMembers(PageRequest.of(0, 2));
+        Page<TeamWithMembersDto> second = teamQueryRepository.findTeamsWithMembers(PageRequest.of(1, 2));
+
+        assertThat(first.getContent()).extracting("teamName").containsExactly("teamA", "teamB");
+        assertThat(first.getContent().get(0).getMembers()).extracting("username")
+                .containsExactly("member1", "member2");
+        assertThat(first.getContent().get(0).getMemberCount()).isEqualTo(3);
+        assertThat(first.getContent().get(1).getMembers()).extracting("username").containsExactly("member4");
+        assertThat(first.getContent().get(1).getMemberCount()).isEqualTo(1);
+
+        assertThat(second.getContent()).extracting("teamName").containsExactly("teamC");
+        assertThat(second.getContent().get(0).getMembers()).isEmpty();
+        assertThat(second.getContent().get(0).getMemberCount()).isZero();
+        assertThat(first.getTotalElements()).isEqualTo(3);
+    }
+}
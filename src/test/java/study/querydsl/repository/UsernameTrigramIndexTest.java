@@ -0,0 +1,97 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class UsernameTrigramIndexTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    UsernameTrigramIndex index;
+    Member alice;
+    Member bob;
+
+    @BeforeEach
+    public void before() {
+        alice = new Member("alice", 10);
+        bob = new Member("bob", 20);
+        em.persist(alice);
+        em.persist(bob);
+        em.persist(new Member("Malice", 30));
+        em.flush();
+        index = new UsernameTrigramIndex(jdbcTemplate, new MemberWriteTracker(), 2);
+    }
+
+    @Test
+    public void findTest() {
+        assertThat(index.findIds("lic")).hasSize(2);   // 트라이그램
+        assertThat(index.findIds("ALICE")).hasSize(2); // 대소문자 무시
+        assertThat(index.findIds("ob")).containsExactly(bob.getId()); // 3글자 미만은 전체 비교
+        assertThat(index.findIds("lica")).isEmpty();   // 조각은 있어도 이어지지 않으면 제외
+        assertThat(index.findIds("xyz")).isEmpty();
+    }
+
+    @Test
+    public void incrementalUpdateTest() {
+        index.findIds("bob"); // 최초 로딩
+
+        index.onSaved(bob.getId(), "bobby");
+        index.onSaved(999_999L, "robert");
+        assertThat(index.findIds("bby")).containsExactly(bob.getId());
+        assertThat(index.findIds("obe")).containsExactly(999_999L);
+
+        index.onSaved(bob.getId(), "carol"); // 예전 조각(bob)은 남아 있어도 걸러짐
+        assertThat(index.findIds("bob")).isEmpty();
+
+        index.onDeleted(alice.getId());
+        assertThat(index.findIds("alice")).hasSize(1);
+    }
+
+    @Test
+    public void eventsBeforeLoadTest() {
+        // 로딩 SELECT 에 보이지 않는 커밋(로딩 중 커밋, 복제본 지연)도 로딩 후 반영
+        index.onSaved(999_999L, "robert");
+        index.onDeleted(alice.getId());
+
+        assertThat(index.findIds("obe")).containsExactly(999_999L);
+        assertThat(index.findIds("alice")).hasSize(1);
+    }
+
+    @Test
+    public void compactTest() {
+        index.findIds("bob");
+        index.onSaved(bob.getId(), "carol");
+        index.onDeleted(alice.getId());
+        assertThat(index.postingSize("bob")).isEqualTo(1);
+        assertThat(index.postingSize("lic")).isEqualTo(2);
+
+        index.compact(); // 예전 조각, 삭제된 회원 제거
+        assertThat(index.postingSize("bob")).isZero();
+        assertThat(index.postingSize("lic")).isEqualTo(1);
+        assertThat(index.findIds("car")).containsExactly(bob.getId());
+        assertThat(index.findIds("alice")).hasSize(1);
+    }
+
+    @Test
+    public void tooManyCandidatesTest() {
+        UsernameTrigramIndex narrow = new UsernameTrigramIndex(jdbcTemplate, new MemberWriteTracker(), 1);
+        assertThatThrownBy(() -> narrow.findIds("lic"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,67 @@
+package study.querydsl.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberBulkImportResult;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberBulkImportServiceTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberBulkImportService memberBulkImportService;
+
+    @Test
+    public void importCsvTest() throws Exception {
+        em.persist(new Team("teamA"));
+        em.flush();
+
+        String csv = "username,age,teamName\n"
+                + "member1,10,teamA\n"
+                + "\"member,2\",20,\n"
+                + "member3,abc,teamA\n"   // age 오류
+                + "member4,40,teamC\n"    // 없는 팀
+                + ",50,teamA\n";          // username 없음
+
+        MemberBulkImportResult result = memberBulkImportService.importMembers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), MemberFileFormat.CSV);
+
+        assertThat(result.getTotalRows()).isEqualTo(5);
+        assertThat(result.getInsertedRows()).isEqualTo(2);
+        assertThat(result.getRejectedRows()).isEqualTo(3);
+        assertThat(result.getRejections()).hasSize(3);
+        assertThat(result.getChunks()).hasSize(1);
+
+        List<Member> members = em.createQuery("select m from Member m left join fetch m.team order by m.username", Member.class)
+                .getResultList();
+        assertThat(members).extracting("username").containsExactly("member,2", "member1");
+        assertThat(members.get(1).getTeam().getName()).isEqualTo("teamA");
+    }
+
+    @Test
+    public void importNdjsonTest() throws Exception {
+        String ndjson = "{\"username\":\"member1\",\"age\":10}\n"
+                + "{\"username\":\"member2\",\"age\":-1}\n"
+                + "not json\n";
+
+        MemberBulkImportResult result = memberBulkImportService.importMembers(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), MemberFileFormat.NDJSON);
+
+        assertThat(result.getInsertedRows()).isEqualTo(1);
+        assertThat(result.getRejectedRows()).isEqualTo(2);
+    }
+}
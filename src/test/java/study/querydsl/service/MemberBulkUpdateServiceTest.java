@@ -0,0 +1,164 @@
+package study.querydsl.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberBulkResult;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberSearchPredicates;
+import study.querydsl.repository.MemberWriteTracker;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 구간마다 별도 트랜잭션으로 커밋되므로 롤백 테스트가 아니라 커밋 후 정리하는 방식으로 검증
+ */
+@SpringBootTest
+class MemberBulkUpdateServiceTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MemberSearchPredicates predicates;
+
+    @Autowired
+    MemberWriteTracker writeTracker;
+
+    MemberBulkUpdateService bulkUpdateService;
+    Long teamBId;
+
+    @BeforeEach
+    public void before() {
+        bulkUpdateService = new MemberBulkUpdateService(em, transactionManager, predicates, writeTracker, 3, Duration.ZERO);
+        transactionTemplate.execute(status -> {
+            Team teamA = new Team("bulkTeamA");
+            Team teamB = new Team("bulkTeamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            teamBId = teamB.getId();
+            for (int i = 0; i < 10; i++) {
+                em.persist(new Member("bulk" + i, i * 10, teamA));
+            }
+            return null;
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        transactionTemplate.execute(status -> {
+            em.createQuery("delete from Member m where m.username like 'bulk%'").executeUpdate();
+            em.createQuery("delete from Team t where t.name like 'bulkTeam%'").executeUpdate();
+            return null;
+        });
+    }
+
+    @Test
+    public void adjustAgeTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("bulkTeamA");
+        condition.setAgeGoe(50);
+        long versionBefore = writeTracker.currentVersion();
+
+        MemberBulkResult result = bulkUpdateService.adjustAge(condition, 1);
+
+        assertThat(result.getAffectedRows()).isEqualTo(5);
+        assertThat(result.getChunks()).hasSizeGreaterThanOrEqualTo(2); // id 구간 3개씩 -> 5건은 구간 2개 이상
+        assertThat(result.getRowsPerSecond()).isPositive();
+        assertThat(writeTracker.currentVersion()).isGreaterThan(versionBefore);
+        assertThat(ages()).containsExactly(0, 10, 20, 30, 40, 51, 61, 71, 81, 91);
+    }
+
+    @Test
+    public void sparseIdsTest() {
+        transactionTemplate.execute(status -> em.createQuery("update Member m set m.team = :team where m.username in ('bulk0', 'bulk9')")
+                .setParameter("team", em.getReference(Team.class, teamBId))
+                .executeUpdate());
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("bulkTeamB");
+        long versionBefore = writeTracker.currentVersion();
+
+        MemberBulkResult result = bulkUpdateService.adjustAge(condition, 1);
+
+        // id 구간 3개씩이지만 대상이 없는 가운데 구간은 건너뜀
+        assertThat(result.getAffectedRows()).isEqualTo(2);
+        assertThat(result.getChunkCount()).isEqualTo(2);
+        assertThat(result.getChunks()).hasSize(2);
+        assertThat(writeTracker.currentVersion()).isEqualTo(versionBefore + 2);
+        assertThat(ages()).containsExactly(1, 10, 20, 30, 40, 50, 60, 70, 80, 91);
+    }
+
+    @Test
+    public void reassignTeamAndDeleteTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeLoe(20);
+
+        assertThat(bulkUpdateService.reassignTeam(condition, teamBId).getAffectedRows()).isEqualTo(3);
+
+        MemberSearchCondition teamB = new MemberSearchCondition();
+        teamB.setTeamName("bulkTeamB");
+        assertThat(bulkUpdateService.delete(teamB).getAffectedRows()).isEqualTo(3);
+        assertThat(ages()).containsExactly(30, 40, 50, 60, 70, 80, 90);
+
+        MemberSearchCondition unknownTeam = new MemberSearchCondition();
+        unknownTeam.setTeamName("noSuchTeam");
+        assertThat(bulkUpdateService.delete(unknownTeam).getAffectedRows()).isZero();
+    }
+
+    @Test
+    public void evictStaleMembersTest() {
+        Integer age = transactionTemplate.execute(status -> {
+            Member loaded = em.createQuery("select m from Member m where m.username = 'bulk1'", Member.class).getSingleResult();
+            Member untouched = em.createQuery("select m from Member m where m.username = 'bulk2'", Member.class).getSingleResult();
+            assertThat(loaded.getAge()).isEqualTo(10);
+
+            MemberSearchCondition condition = new MemberSearchCondition();
+            condition.setUsername("bulk1");
+            bulkUpdateService.adjustAge(condition, 5);
+
+            // 영속성 컨텍스트에 남아 있던 엔티티는 분리되고 다시 조회하면 DB 값
+            assertThat(em.contains(loaded)).isFalse();
+            assertThat(em.contains(untouched)).isTrue(); // 구간에서 바뀌지 않은 회원은 그대로
+            return em.find(Member.class, loaded.getId()).getAge();
+        });
+        assertThat(age).isEqualTo(15);
+    }
+
+    @Test
+    public void pendingChangesRejectedTest() {
+        transactionTemplate.execute(status -> {
+            Member loaded = em.createQuery("select m from Member m where m.username = 'bulk1'", Member.class).getSingleResult();
+            loaded.setAge(99); // flush 전 변경
+
+            MemberSearchCondition condition = new MemberSearchCondition();
+            condition.setUsername("bulk1");
+            assertThatThrownBy(() -> bulkUpdateService.adjustAge(condition, 5))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThat(loaded.getAge()).isEqualTo(99); // 변경은 그대로 남아 있음
+            return null;
+        });
+        assertThat(ages()).contains(99);
+    }
+
+    private List<Integer> ages() {
+        return em.createQuery("select m.age from Member m where m.username like 'bulk%' order by m.age", Integer.class)
+                .getResultList();
+    }
+}
@@ -0,0 +1,116 @@
+package study.querydsl.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSeedResult;
+import study.querydsl.dto.MemberSeedSpec;
+import study.querydsl.entity.Member;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 시드는 여러 스레드/트랜잭션에서 커밋되고 시퀀스 변경(DDL)도 있으므로 롤백 테스트가 아니라 커밋 후 정리하는 방식으로 검증
+ */
+@SpringBootTest
+class MemberDataSeederTest {
+
+    @Autowired
+    MemberDataSeeder seeder;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    EntityManager em;
+
+    @AfterEach
+    public void after() {
+        clear();
+    }
+
+    @Test
+    public void deterministicSeedTest() {
+        MemberSeedSpec spec = spec();
+        spec.setThreads(1);
+        MemberSeedResult result = seeder.seed(spec);
+        assertThat(result.getMembers()).isEqualTo(1000);
+        assertThat(result.getPartitions()).isEqualTo(10);
+        assertThat(result.getRowsPerSecond()).isPositive();
+        List<Map<String, Object>> single = snapshot();
+        assertThat(single).hasSize(1000);
+
+        // 이미 데이터가 있으면 건너뜀
+        assertThat(seeder.seed(spec).isSkipped()).isTrue();
+
+        // 스레드 수가 달라도 같은 데이터
+        clear();
+        spec.setThreads(4);
+        seeder.seed(spec);
+        assertThat(snapshot()).isEqualTo(single);
+    }
+
+    @Test
+    public void distributionTest() {
+        MemberSeedSpec spec = spec();
+        spec.setTeamSkew(1.5);
+        spec.setAgeDistribution(MemberSeedSpec.AgeDistribution.NORMAL);
+        spec.setAgeMin(20);
+        spec.setAgeMax(40);
+        seeder.seed(spec);
+
+        // 앞쪽 팀에 몰림
+        Long team0 = jdbcTemplate.queryForObject(
+                "select count(*) from member m join team t on m.team_id = t.id where t.name = 'team0'", Long.class);
+        Long team4 = jdbcTemplate.queryForObject(
+                "select count(*) from member m join team t on m.team_id = t.id where t.name = 'team4'", Long.class);
+        assertThat(team0).isGreaterThan(team4 * 3);
+
+        assertThat(jdbcTemplate.queryForObject("select min(age) from member", Integer.class)).isGreaterThanOrEqualTo(20);
+        assertThat(jdbcTemplate.queryForObject("select max(age) from member", Integer.class)).isLessThanOrEqualTo(40);
+    }
+
+    @Test
+    public void sequenceAfterSeedTest() {
+        seeder.seed(spec());
+
+        Long id = transactionTemplate.execute(status -> {
+            Member member = new Member("afterSeed", 10);
+            em.persist(member);
+            return member.getId();
+        });
+
+        // persist 로 만든 id 는 시드 데이터 id 와 겹치지 않는다
+        Long maxSeededId = jdbcTemplate.queryForObject("select max(member_id) from member where username <> 'afterSeed'", Long.class);
+        assertThat(id).isGreaterThan(maxSeededId);
+    }
+
+    private MemberSeedSpec spec() {
+        MemberSeedSpec spec = new MemberSeedSpec();
+        spec.setMembers(1000);
+        spec.setTeams(5);
+        spec.setRandomSeed(7);
+        spec.setBatchSize(100);
+        return spec;
+    }
+
+    private List<Map<String, Object>> snapshot() {
+        return jdbcTemplate.queryForList(
+                "select m.username, m.age, t.name from member m join team t on m.team_id = t.id order by m.username");
+    }
+
+    private void clear() {
+        jdbcTemplate.execute("delete from member");
+        jdbcTemplate.execute("delete from team");
+    }
+}
@@ -0,0 +1,66 @@
+package study.querydsl.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberExportServiceTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberExportService memberExportService;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member,2", 20, teamA));
+        em.persist(new Member("member3", 30));
+        em.flush();
+    }
+
+    @Test
+    public void exportCsvTest() throws Exception {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeLoe(20);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = memberExportService.export(condition, MemberFileFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\n");
+        assertThat(rows).isEqualTo(2);
+        assertThat(lines[0]).isEqualTo("memberId,username,age,teamId,teamName");
+        assertThat(lines).hasSize(3);
+        assertThat(lines).anyMatch(line -> line.contains("\"member,2\",20,"));
+    }
+
+    @Test
+    public void exportNdjsonTest() throws Exception {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member3");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        memberExportService.export(condition, MemberFileFormat.NDJSON, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8.name()))
+                .contains("\"username\":\"member3\"")
+                .contains("\"teamName\":null")
+                .endsWith("\n");
+    }
+}
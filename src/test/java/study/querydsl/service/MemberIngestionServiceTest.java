@@ -0,0 +1,46 @@
+package study.querydsl.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberInsertDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberIngestionServiceTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberIngestionService memberIngestionService;
+
+    @Test
+    public void insertTest() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.flush();
+
+        List<MemberInsertDto> rows = new ArrayList<>();
+        for (int i = 0; i < 250; i++) { // batch_size(100) 보다 많이 넣어서 중간 flush/clear 확인
+            rows.add(new MemberInsertDto("member" + i, i, i % 2 == 0 ? teamA.getId() : null));
+        }
+
+        int inserted = memberIngestionService.insert(rows);
+
+        assertThat(inserted).isEqualTo(250);
+        List<Member> members = em.createQuery("select m from Member m left join fetch m.team", Member.class)
+                .getResultList();
+        assertThat(members).hasSize(250);
+        assertThat(members).filteredOn(m -> m.getTeam() != null).hasSize(125);
+    }
+}